@@ -13,6 +13,12 @@ public record Order(
     String status, // PENDING, PAID, SHIPPED, DELIVERED
     String customerTier // BASIC, PREMIUM, VIP
 ) {
+    // Shared instances for the repeated values (see ValueDictionary)
+    public Order {
+        status = ValueDictionary.STATUSES.canonical(status);
+        customerTier = ValueDictionary.CUSTOMER_TIERS.canonical(customerTier);
+    }
+
     // Business logic methods
     public boolean isHighValue() {
         return total > 1000.0;
@@ -1,6 +1,17 @@
 package com.example.java21features.recordpatterns.model;
 
-// Main payment sealed interface with all implementations in one file
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+// Main payment sealed interface with all implementations in one file.
+// status and cardType are canonicalized on creation (see ValueDictionary).
+// In JSON the subtype is named by a "type" property, e.g. {"type": "PayPal", ...}
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = Payment.CreditCard.class, name = "CreditCard"),
+    @JsonSubTypes.Type(value = Payment.PayPal.class, name = "PayPal"),
+    @JsonSubTypes.Type(value = Payment.BankTransfer.class, name = "BankTransfer")
+})
 public sealed interface Payment {
     String id();
     double amount();
@@ -8,13 +19,26 @@ public sealed interface Payment {
     
     // Credit card payment - most common type
     record CreditCard(String id, double amount, String status, 
-                     String lastFour, String cardType, boolean isInternational) implements Payment {}
+                     String lastFour, String cardType, boolean isInternational) implements Payment {
+        public CreditCard {
+            status = ValueDictionary.STATUSES.canonical(status);
+            cardType = ValueDictionary.CARD_TYPES.canonical(cardType);
+        }
+    }
     
     // PayPal payment - digital wallet
     record PayPal(String id, double amount, String status, 
-                  String email, boolean isBusiness) implements Payment {}
+                  String email, boolean isBusiness) implements Payment {
+        public PayPal {
+            status = ValueDictionary.STATUSES.canonical(status);
+        }
+    }
     
     // Bank transfer - for large amounts
     record BankTransfer(String id, double amount, String status, 
-                        String bank, String reference) implements Payment {}
+                        String bank, String reference) implements Payment {
+        public BankTransfer {
+            status = ValueDictionary.STATUSES.canonical(status);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.java21features.recordpatterns.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Canonical instances for the small vocabularies that payments and orders carry
+// as Strings (status, card type, customer tier). Models pass these fields
+// through canonical() when they are created, so millions of records share one
+// String per value instead of each holding its own copy from the parser, and
+// "COMPLETED".equals(status) is decided by String.equals' identity check.
+//
+// Known values map to their string literals, which are interned constants.
+// Other values are shared through a map capped at MAX_OTHER_VALUES entries;
+// past that they are kept as given, so unbounded input cannot grow the map.
+public final class ValueDictionary {
+    static final int MAX_OTHER_VALUES = 1024;
+
+    public static final ValueDictionary STATUSES = new ValueDictionary(
+        "PENDING", "PROCESSING", "COMPLETED", "CANCELLED", "FAILED", "PAID", "SHIPPED", "DELIVERED");
+    public static final ValueDictionary CARD_TYPES = new ValueDictionary(
+        "VISA", "MASTERCARD", "AMEX", "DISCOVER");
+    public static final ValueDictionary CUSTOMER_TIERS = new ValueDictionary(
+        "BASIC", "PREMIUM", "VIP");
+
+    private final String[] known;
+    private final int maxOtherValues;
+    private final ConcurrentMap<String, String> others = new ConcurrentHashMap<>();
+
+    private ValueDictionary(String... known) {
+        this(MAX_OTHER_VALUES, known);
+    }
+
+    // A dictionary of its own, so tests can fill the other values without
+    // touching the shared ones
+    ValueDictionary(int maxOtherValues, String... known) {
+        this.known = known;
+        this.maxOtherValues = maxOtherValues;
+    }
+
+    public String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        // Values that are already canonical (literals, earlier results) match by reference
+        for (String candidate : known) {
+            if (candidate == value) {
+                return candidate;
+            }
+        }
+        for (String candidate : known) {
+            if (candidate.equals(value)) {
+                return candidate;
+            }
+        }
+        String shared = others.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (others.size() >= maxOtherValues) {
+            return value;
+        }
+        shared = others.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.java21features.stringtemplates;
 
 import com.example.java21features.stringtemplates.model.User;
+import com.example.java21features.stringtemplates.templateprocessors.CompiledTemplate;
 import com.example.java21features.stringtemplates.templateprocessors.JsonTemplateProcessor;
 import com.example.java21features.stringtemplates.templateprocessors.SqlTemplateProcessor;
 
@@ -140,13 +141,7 @@ public class StringTemplatesDemo {
 
     // Manual interpolation method (simulating string templates)
     private String interpolate(String template, Object... values) {
-        String result = template;
-        for (int i = 0; i < values.length; i++) {
-            String placeholder = "\\{" + i + "\\}";
-            result = result.replaceAll(placeholder, 
-                values[i] != null ? values[i].toString() : "null");
-        }
-        return result;
+        return CompiledTemplate.of(template).render(values);
     }
 
     // Main demo method
@@ -0,0 +1,141 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A {0}-style template parsed once into literal segments and argument indexes,
+// then rendered in a single pass into a pre-sized StringBuilder:
+//
+//   CompiledTemplate.of("Dear {0}, your username is {1}").render(fullName, username)
+//
+// Values are inserted verbatim: '$', '\' and placeholder text inside a value are
+// never re-interpreted. A placeholder with no matching value stays as written,
+// and anything in braces other than a plain index ({007}, {name}) is a literal.
+public final class CompiledTemplate {
+    // Longer indexes are treated as literal text rather than risk overflow
+    private static final int MAX_INDEX_DIGITS = 4;
+    // Capacity reserved per placeholder whose value is not a String
+    private static final int VALUE_ESTIMATE = 16;
+
+    private static final TemplateCache<CompiledTemplate> CACHE = new TemplateCache<>(TemplateCache.DEFAULT_MAXIMUM_SIZE);
+
+    private final String template;
+    // literals[i] precedes placeholder i; the last one follows the last placeholder
+    private final String[] literals;
+    private final int[] indexes;
+    private final int literalLength;
+
+    private CompiledTemplate(String template, String[] literals, int[] indexes) {
+        this.template = template;
+        this.literals = literals;
+        this.indexes = indexes;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    // Compiled once per distinct template text while it stays in the shared cache
+    public static CompiledTemplate of(String template) {
+        return CACHE.get(template, CompiledTemplate::compile);
+    }
+
+    // The cache behind of()
+    public static TemplateCache<CompiledTemplate> cache() {
+        return CACHE;
+    }
+
+    public static CompiledTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int literalStart = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int index = parseIndex(template, open + 1);
+            if (index < 0) {
+                open = template.indexOf('{', open + 1);
+                continue;
+            }
+            literals.add(template.substring(literalStart, open));
+            indexes.add(index);
+            literalStart = template.indexOf('}', open) + 1;
+            open = template.indexOf('{', literalStart);
+        }
+        literals.add(template.substring(literalStart));
+        return new CompiledTemplate(template, literals.toArray(String[]::new),
+            indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // The index of a placeholder whose digits start at from, or -1 if the text
+    // there is not a plain index followed by '}'
+    private static int parseIndex(String template, int from) {
+        int index = 0;
+        int i = from;
+        while (i < template.length() && i - from < MAX_INDEX_DIGITS) {
+            char c = template.charAt(i);
+            if (c == '}') {
+                break;
+            }
+            if (c < '0' || c > '9' || (i > from && index == 0)) {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+            i++;
+        }
+        return i > from && i < template.length() && template.charAt(i) == '}' ? index : -1;
+    }
+
+    public String template() {
+        return template;
+    }
+
+    public int placeholders() {
+        return indexes.length;
+    }
+
+    // The literal text before placeholder i; literal(placeholders()) is the tail
+    String literal(int i) {
+        return literals[i];
+    }
+
+    // The argument index placeholder i refers to
+    int index(int i) {
+        return indexes[i];
+    }
+
+    int literalLength() {
+        return literalLength;
+    }
+
+    public String render(Object... values) {
+        int capacity = literalLength;
+        for (int index : indexes) {
+            capacity += index < values.length && values[index] instanceof String s ? s.length() : VALUE_ESTIMATE;
+        }
+        return renderTo(new StringBuilder(capacity), values).toString();
+    }
+
+    public StringBuilder renderTo(StringBuilder sb, Object... values) {
+        for (int i = 0; i < indexes.length; i++) {
+            sb.append(literals[i]);
+            int index = indexes[i];
+            if (index >= values.length) {
+                sb.append('{').append(index).append('}');
+                continue;
+            }
+            switch (values[index]) {
+                case String s -> sb.append(s);
+                case Integer n -> sb.append(n.intValue());
+                case Long n -> sb.append(n.longValue());
+                case null, default -> sb.append(values[index]);
+            }
+        }
+        return sb.append(literals[indexes.length]);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
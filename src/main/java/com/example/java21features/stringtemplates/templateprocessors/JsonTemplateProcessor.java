@@ -7,17 +7,43 @@ public class JsonTemplateProcessor {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    // For each ASCII character: 0 if it is written as is, else the letter of its
+    // short escape, or UNICODE_ESCAPE for the six-character hex form
+    private static final int UNICODE_ESCAPE = -1;
+    private static final int[] ESCAPES = new int[128];
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = UNICODE_ESCAPE;
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+    }
+
+    // Templates validated once, by text; an invalid template is not cached
+    private static final TemplateCache<CompiledJson> COMPILED = new TemplateCache<>(TemplateCache.DEFAULT_MAXIMUM_SIZE);
+
     public static JsonTemplate of(String template, Object... values) {
-        return new JsonTemplate(template, values);
+        return new JsonTemplate(COMPILED.get(template, CompiledJson::compile).render(values));
+    }
+
+    public static TemplateCache<?> cache() {
+        return COMPILED;
     }
 
     public static final class JsonTemplate {
         private final String jsonString;
-        private final ObjectNode jsonNode;
+        // Parsed on first use; most callers only want the text
+        private volatile ObjectNode jsonNode;
 
-        private JsonTemplate(String template, Object[] values) {
-            this.jsonString = buildJsonString(template, values);
-            this.jsonNode = parseJson(jsonString);
+        private JsonTemplate(String jsonString) {
+            this.jsonString = jsonString;
         }
 
         public String getJsonString() {
@@ -25,46 +51,168 @@ public class JsonTemplateProcessor {
         }
 
         public ObjectNode getJsonNode() {
-            return jsonNode;
+            ObjectNode node = jsonNode;
+            if (node == null) {
+                node = parseJson(jsonString);
+                jsonNode = node;
+            }
+            return node;
         }
 
+        // The template was validated when compiled and every value is rendered
+        // as valid JSON, so the text always parses
         public boolean isValid() {
-            return jsonNode != null;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return jsonString;
         }
+    }
 
-        private String buildJsonString(String template, Object[] values) {
-            // Simple template processing for JSON
-            String result = template;
-            for (int i = 0; i < values.length; i++) {
-                String placeholder = "\\{" + i + "\\}";
-                String value = escapeJsonValue(values[i]);
-                result = result.replaceAll(placeholder, value);
+    // A JSON object template with {0}-style placeholders, checked once. A
+    // placeholder in value position renders its value as a JSON value; one
+    // inside a string literal ("Hello {0}") renders the value's escaped text.
+    private static final class CompiledJson {
+        private final CompiledTemplate template;
+        private final boolean[] inString;
+
+        private CompiledJson(CompiledTemplate template, boolean[] inString) {
+            this.template = template;
+            this.inString = inString;
+        }
+
+        static CompiledJson compile(String text) {
+            CompiledTemplate template = CompiledTemplate.compile(text);
+            boolean[] inString = new boolean[template.placeholders()];
+            // Placeholders in value position become null, so the skeleton parses
+            // exactly when every rendering of the template does
+            StringBuilder skeleton = new StringBuilder(text.length());
+            boolean quoted = false;
+            for (int i = 0; i <= inString.length; i++) {
+                String literal = template.literal(i);
+                quoted = scanStrings(literal, quoted);
+                skeleton.append(literal);
+                if (i < inString.length) {
+                    inString[i] = quoted;
+                    skeleton.append(quoted ? "{" + template.index(i) + "}" : "null");
+                }
             }
-            return result;
+            parseJson(skeleton.toString());
+            return new CompiledJson(template, inString);
         }
 
-        private String escapeJsonValue(Object value) {
-            if (value == null) return "null";
-            if (value instanceof String) {
-                return "\"" + ((String) value).replace("\"", "\\\"") + "\"";
+        // Whether the text after literal is inside a string, given whether it starts in one
+        private static boolean scanStrings(String literal, boolean quoted) {
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                if (quoted && c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    quoted = !quoted;
+                }
             }
-            if (value instanceof Number || value instanceof Boolean) {
-                return value.toString();
+            return quoted;
+        }
+
+        String render(Object[] values) {
+            StringBuilder sb = new StringBuilder(template.literalLength() + 16 * inString.length);
+            for (int i = 0; i < inString.length; i++) {
+                sb.append(template.literal(i));
+                int index = template.index(i);
+                if (index >= values.length) {
+                    if (!inString[i]) {
+                        throw new IllegalArgumentException("No value for {" + index + "} in JSON template: " + template);
+                    }
+                    sb.append('{').append(index).append('}');
+                } else if (inString[i]) {
+                    escapeJsonValue(sb, String.valueOf(values[index]));
+                } else {
+                    appendJsonValue(sb, values[index]);
+                }
             }
-            return "\"" + value.toString().replace("\"", "\\\"") + "\"";
+            return sb.append(template.literal(inString.length)).toString();
         }
+    }
+
+    private static void appendJsonValue(StringBuilder sb, Object value) {
+        if (value == null || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Number number && isFinite(number)) {
+            sb.append(number);
+        } else {
+            // Strings, other objects and NaN/Infinity (as Jackson writes them)
+            escapeJsonValue(sb.append('"'), value.toString()).append('"');
+        }
+    }
 
-        private ObjectNode parseJson(String jsonString) {
-            try {
-                return (ObjectNode) objectMapper.readTree(jsonString);
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Invalid JSON template: " + jsonString, e);
+    private static boolean isFinite(Number number) {
+        return switch (number) {
+            case Double d -> Double.isFinite(d);
+            case Float f -> Float.isFinite(f);
+            default -> true;
+        };
+    }
+
+    // Appends value as the contents of a JSON string, escaping exactly what
+    // Jackson does ('"', '\\' and control characters, short forms where JSON has
+    // them) plus unpaired surrogates, which no UTF-8 encoder can write. Runs of
+    // plain characters are copied wholesale; a string with nothing to escape is
+    // one scan and one append.
+    public static StringBuilder escapeJsonValue(StringBuilder sb, String value) {
+        int length = value.length();
+        int i = 0;
+        while (i < length && !needsEscape(value.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return sb.append(value);
+        }
+        int runStart = 0;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (!needsEscape(c)) {
+                continue;
             }
+            if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                    continue;
+                }
+                sb.append(value, runStart, i);
+                appendUnicodeEscape(sb, c);
+            } else {
+                sb.append(value, runStart, i);
+                int escape = ESCAPES[c];
+                if (escape > 0) {
+                    sb.append('\\').append((char) escape);
+                } else {
+                    appendUnicodeEscape(sb, c);
+                }
+            }
+            runStart = i + 1;
         }
+        return sb.append(value, runStart, length);
+    }
 
-        @Override
-        public String toString() {
-            return jsonString;
+    private static boolean needsEscape(char c) {
+        return c < 128 ? ESCAPES[c] != 0 : Character.isSurrogate(c);
+    }
+
+    private static void appendUnicodeEscape(StringBuilder sb, char c) {
+        sb.append("\\u")
+            .append(HEX_DIGITS[c >> 12])
+            .append(HEX_DIGITS[(c >> 8) & 0xF])
+            .append(HEX_DIGITS[(c >> 4) & 0xF])
+            .append(HEX_DIGITS[c & 0xF]);
+    }
+
+    private static ObjectNode parseJson(String jsonString) {
+        try {
+            return (ObjectNode) objectMapper.readTree(jsonString);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid JSON template: " + jsonString, e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Prepared statements for one connection, keyed by SQL text and reused across
+// calls; the least recently used one is closed once more than maximumSize are
+// open. Like the Connection it wraps, it is for one thread at a time. Closing
+// the cache closes its statements, not the connection. Each statement's
+// parameter metadata is read once and kept with it.
+public final class PreparedStatementCache implements AutoCloseable {
+    private final Connection connection;
+    private final int maximumSize;
+    private final LinkedHashMap<String, StatementParameters> statements;
+    private long prepared;
+
+    public PreparedStatementCache(Connection connection, int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.connection = connection;
+        this.maximumSize = maximumSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // The statement is passed to the driver as is, as Connection.prepareStatement
+    // would; it stays owned by the cache
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return parameters(sql).statement();
+    }
+
+    StatementParameters parameters(String sql) throws SQLException {
+        StatementParameters stmt = statements.get(sql);
+        if (stmt == null) {
+            stmt = new StatementParameters(connection.prepareStatement(sql));
+            prepared++;
+            statements.put(sql, stmt);
+            if (statements.size() > maximumSize) {
+                Iterator<StatementParameters> eldest = statements.values().iterator();
+                StatementParameters evicted = eldest.next();
+                eldest.remove();
+                evicted.statement().close();
+            }
+        }
+        return stmt;
+    }
+
+    // Runs sql once per parameter set, sending the batch to the database every
+    // batchSize sets; returns the total update count, ignoring drivers'
+    // SUCCESS_NO_INFO results. Batches already sent stay applied if a later set
+    // fails; the unsent rest is discarded so the cached statement can be reused.
+    public long executeBatch(String sql, Iterable<Object[]> parameterSets, int batchSize) throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        StatementParameters types = parameters(sql);
+        PreparedStatement stmt = types.statement();
+        int parameterCount = types.count();
+        long updated = 0;
+        int pending = 0;
+        try {
+            for (Object[] parameters : parameterSets) {
+                if (parameters.length != parameterCount) {
+                    throw new IllegalArgumentException("Expected " + parameterCount + " parameters, got "
+                        + parameters.length + " for: " + sql);
+                }
+                for (int i = 0; i < parameters.length; i++) {
+                    SqlTemplateProcessor.setParameter(types, i + 1, parameters[i]);
+                }
+                stmt.addBatch();
+                if (++pending == batchSize) {
+                    updated += sum(stmt.executeBatch());
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                updated += sum(stmt.executeBatch());
+            }
+            return updated;
+        } catch (SQLException | RuntimeException e) {
+            discardBatch(stmt, e);
+            throw e;
+        }
+    }
+
+    private static void discardBatch(PreparedStatement stmt, Exception failure) {
+        try {
+            stmt.clearBatch();
+            stmt.clearParameters();
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    // How many statements the driver has been asked to prepare
+    public long prepared() {
+        return prepared;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        SQLException failure = null;
+        for (StatementParameters stmt : statements.values()) {
+            try {
+                stmt.statement().close();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        statements.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
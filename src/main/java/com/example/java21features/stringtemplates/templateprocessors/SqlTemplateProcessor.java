@@ -1,6 +1,10 @@
 package com.example.java21features.stringtemplates.templateprocessors;
 
+import java.math.BigDecimal;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -11,8 +15,20 @@ public class SqlTemplateProcessor {
         Pattern.compile("([';]+|(--)+|(\\*)+|(\\b)(DROP|DELETE|INSERT|UPDATE|SELECT|UNION|EXEC)(\\b))", 
                        Pattern.CASE_INSENSITIVE);
 
+    // Validated queries by template text; a rejected template is not cached
+    private static final TemplateCache<String> VALIDATED = new TemplateCache<>(TemplateCache.DEFAULT_MAXIMUM_SIZE);
+
     public static SqlTemplate of(String template, Object... values) {
-        return new SqlTemplate(template, List.of(values));
+        return new SqlTemplate(VALIDATED.get(template, SqlTemplateProcessor::validateSql), parameters(values));
+    }
+
+    public static TemplateCache<String> cache() {
+        return VALIDATED;
+    }
+
+    // Every combination of optional predicates on a fixed statement, built once
+    public static StatementShapes shapes(String base, String... predicates) {
+        return new StatementShapes(base, predicates);
     }
 
     public static final class SqlTemplate {
@@ -20,7 +36,7 @@ public class SqlTemplateProcessor {
         private final List<Object> parameters;
 
         private SqlTemplate(String query, List<Object> parameters) {
-            this.query = validateSql(query);
+            this.query = query;
             this.parameters = parameters;
         }
 
@@ -35,10 +51,22 @@ public class SqlTemplateProcessor {
         public PreparedStatement createPreparedStatement(java.sql.Connection connection) 
                 throws java.sql.SQLException {
             PreparedStatement stmt = connection.prepareStatement(query);
+            bind(new StatementParameters(stmt));
+            return stmt;
+        }
+
+        // The cached statement for this query with the parameters bound; the
+        // cache owns it, so callers execute it but do not close it
+        public PreparedStatement prepare(PreparedStatementCache statements) throws SQLException {
+            StatementParameters stmt = statements.parameters(query);
+            bind(stmt);
+            return stmt.statement();
+        }
+
+        private void bind(StatementParameters stmt) throws SQLException {
             for (int i = 0; i < parameters.size(); i++) {
-                stmt.setObject(i + 1, parameters.get(i));
+                setParameter(stmt, i + 1, parameters.get(i));
             }
-            return stmt;
         }
 
         @Override
@@ -47,6 +75,76 @@ public class SqlTemplateProcessor {
         }
     }
 
+    // A base statement plus optional predicates, with the SQL for each subset
+    // assembled up front: bit i of the mask appends predicates[i], in order.
+    // The fragments must be constants in the code. No input reaches them, so they
+    // skip the injection check, which would reject any SELECT.
+    public static final class StatementShapes {
+        // 2^10 shapes at most
+        private static final int MAX_PREDICATES = 10;
+
+        private final String[] queries;
+        private final int[] parameterCounts;
+
+        private StatementShapes(String base, String[] predicates) {
+            if (predicates.length > MAX_PREDICATES) {
+                throw new IllegalArgumentException("At most " + MAX_PREDICATES + " predicates, got " + predicates.length);
+            }
+            queries = new String[1 << predicates.length];
+            parameterCounts = new int[queries.length];
+            for (int mask = 0; mask < queries.length; mask++) {
+                StringBuilder query = new StringBuilder(base);
+                for (int i = 0; i < predicates.length; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        query.append(predicates[i]);
+                    }
+                }
+                queries[mask] = query.toString();
+                parameterCounts[mask] = (int) queries[mask].chars().filter(c -> c == '?').count();
+            }
+        }
+
+        public int size() {
+            return queries.length;
+        }
+
+        public String query(int mask) {
+            if (mask < 0 || mask >= queries.length) {
+                throw new IllegalArgumentException("No statement shape for mask " + mask);
+            }
+            return queries[mask];
+        }
+
+        public SqlTemplate bind(int mask, Object... values) {
+            String query = query(mask);
+            if (values.length != parameterCounts[mask]) {
+                throw new IllegalArgumentException("Expected " + parameterCounts[mask] + " parameters for: " + query);
+            }
+            return new SqlTemplate(query, parameters(values));
+        }
+    }
+
+    // Unmodifiable copy of the values; unlike List.of, null is a valid parameter
+    private static List<Object> parameters(Object[] values) {
+        return Collections.unmodifiableList(Arrays.asList(values.clone()));
+    }
+
+    // The typed setter for each common parameter type, setObject otherwise; a
+    // null takes the parameter's declared type from the statement's cached metadata
+    static void setParameter(StatementParameters parameters, int index, Object value) throws SQLException {
+        PreparedStatement stmt = parameters.statement();
+        switch (value) {
+            case null -> stmt.setNull(index, parameters.nullType(index));
+            case String s -> stmt.setString(index, s);
+            case Integer n -> stmt.setInt(index, n);
+            case Long n -> stmt.setLong(index, n);
+            case Boolean b -> stmt.setBoolean(index, b);
+            case Double d -> stmt.setDouble(index, d);
+            case BigDecimal d -> stmt.setBigDecimal(index, d);
+            default -> stmt.setObject(index, value);
+        }
+    }
+
     private static String validateSql(String sql) {
         if (SQL_INJECTION_PATTERN.matcher(sql).find()) {
             throw new IllegalArgumentException("Potential SQL injection detected in query: " + sql);
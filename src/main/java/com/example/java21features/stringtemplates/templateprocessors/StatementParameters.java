@@ -0,0 +1,58 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+// A prepared statement with its parameter count and declared types, read from
+// the driver's metadata once, when first needed, and kept for as long as the
+// statement is. Like the statement, it is for one thread at a time.
+final class StatementParameters {
+    private final PreparedStatement statement;
+    // Declared type of each parameter, null until the metadata is read
+    private int[] types;
+    private boolean unavailable;
+
+    StatementParameters(PreparedStatement statement) {
+        this.statement = statement;
+    }
+
+    PreparedStatement statement() {
+        return statement;
+    }
+
+    // Fails as getParameterMetaData does when the driver cannot report it
+    int count() throws SQLException {
+        if (types == null) {
+            load();
+        }
+        return types.length;
+    }
+
+    // The parameter's declared type where the driver reports it, since some
+    // drivers refuse Types.NULL; VARCHAR where it does not
+    int nullType(int index) {
+        if (types == null && !unavailable) {
+            try {
+                load();
+            } catch (SQLException e) {
+                unavailable = true;
+            }
+        }
+        return types != null && index <= types.length ? types[index - 1] : Types.VARCHAR;
+    }
+
+    private void load() throws SQLException {
+        ParameterMetaData metadata = statement.getParameterMetaData();
+        int[] loaded = new int[metadata.getParameterCount()];
+        for (int i = 0; i < loaded.length; i++) {
+            try {
+                loaded[i] = metadata.getParameterType(i + 1);
+            } catch (SQLException e) {
+                loaded[i] = Types.VARCHAR;
+            }
+        }
+        types = loaded;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Parsed or validated templates keyed by their text, bounded to maximumSize.
+//
+// Lookups are a ConcurrentHashMap read plus a reference bit, so hits never take
+// a lock. Eviction is CLOCK (second chance), an approximation of LRU: a new
+// entry takes the slot of the first entry under the hand that has not been
+// read since the hand last passed it. Only admissions take the lock.
+//
+// A loader that throws caches nothing, so invalid templates fail on every call.
+public final class TemplateCache<V> {
+    // A few hundred distinct templates in practice; room to spare
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final class Entry<V> {
+        final String key;
+        final V value;
+        volatile boolean referenced;
+
+        Entry(String key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry<V>> entries;
+    private final Entry<V>[] clock;
+    private final ReentrantLock admissionLock = new ReentrantLock();
+    private int hand;
+    private int occupied;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public TemplateCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.entries = new ConcurrentHashMap<>(maximumSize * 4 / 3 + 1);
+        this.clock = (Entry<V>[]) new Entry<?>[maximumSize];
+    }
+
+    public V get(String key, Function<String, ? extends V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            // Only write when the bit changes, so hot entries stay read-shared
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        // Loaded outside any lock; concurrent misses on one key may both load
+        Entry<V> loaded = new Entry<>(key, loader.apply(key));
+        Entry<V> raced = entries.putIfAbsent(key, loaded);
+        if (raced != null) {
+            return raced.value;
+        }
+        admit(loaded);
+        return loaded.value;
+    }
+
+    private void admit(Entry<V> entry) {
+        admissionLock.lock();
+        try {
+            if (occupied < clock.length) {
+                clock[occupied++] = entry;
+                return;
+            }
+            while (true) {
+                Entry<V> candidate = clock[hand];
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                } else {
+                    entries.remove(candidate.key, candidate);
+                    evictions.increment();
+                    clock[hand] = entry;
+                    hand = (hand + 1) % clock.length;
+                    return;
+                }
+                hand = (hand + 1) % clock.length;
+            }
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    public int maximumSize() {
+        return clock.length;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+}
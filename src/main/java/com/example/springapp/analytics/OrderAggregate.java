@@ -0,0 +1,9 @@
+package com.example.springapp.analytics;
+
+// Count, revenue and average order amount for one group (a status or a time bucket)
+public record OrderAggregate(String key, long count, double sum, double average) {
+
+    static OrderAggregate of(String key, long count, double sum) {
+        return new OrderAggregate(key, count, sum, count > 0 ? sum / count : 0.0);
+    }
+}
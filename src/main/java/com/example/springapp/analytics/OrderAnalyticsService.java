@@ -0,0 +1,34 @@
+package com.example.springapp.analytics;
+
+import com.example.springapp.service.OrderService;
+import com.example.springapp.store.OrderStore;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class OrderAnalyticsService {
+    private final OrderStore orders;
+    private final OrderColumns columns = new OrderColumns();
+
+    public OrderAnalyticsService(OrderStore orders, OrderService orderService) {
+        this.orders = orders;
+        // Keeps the copied status column in step with status updates
+        orderService.addStatusListener((previous, updated) -> columns.statusChanged(orders, updated));
+    }
+
+    // Revenue per status over every order created so far
+    public List<OrderAggregate> revenueByStatus() {
+        columns.catchUp(orders);
+        return columns.aggregateByStatus();
+    }
+
+    // Revenue per time bucket in [from, to); status may be null for all orders
+    public List<OrderAggregate> revenueByTime(LocalDateTime from, LocalDateTime to,
+                                              Duration bucket, String status) {
+        columns.catchUp(orders);
+        return columns.aggregateByTime(from, to, bucket.toSeconds(), status);
+    }
+}
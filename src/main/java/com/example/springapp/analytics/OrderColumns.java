@@ -0,0 +1,266 @@
+package com.example.springapp.analytics;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.store.OrderStore;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Primitive, column-per-field copy of the order store for aggregation scans.
+//
+// Each field lives in chunked primitive arrays (double amounts, epoch-second
+// timestamps and a dictionary-encoded status byte), so a scan touches ~17 bytes
+// per order in sequential memory instead of chasing four boxed objects. Ids are
+// dense, so a position in the columns is also the order's position in the
+// store. Columns are filled by catchUp(), which copies the orders the store has
+// published since the last call; a single appender runs at a time and readers
+// only look below the published size.
+//
+// The status dictionary holds up to 253 distinct statuses; any status seen
+// after it is full shares the OTHER code and is reported as OTHER_STATUS.
+//
+// Status codes can also change in place: statusChanged() rewrites the code of
+// an updated order without taking the append lock.
+public class OrderColumns {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << 16;
+    // Status code 0 is reserved for orders without a status
+    private static final int MAX_STATUSES = 256;
+    // Marks the position of an abandoned id; never assigned to a status, so
+    // aggregateByStatus() never reports it
+    private static final int ABSENT = MAX_STATUSES - 1;
+    // Shared by every status seen once the dictionary is full
+    private static final int OTHER = MAX_STATUSES - 2;
+    static final String OTHER_STATUS = "(other)";
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final VarHandle STATUS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final double[][] amounts = new double[MAX_CHUNKS][];
+    private final long[][] createdAt = new long[MAX_CHUNKS][];
+    private final byte[][] statuses = new byte[MAX_CHUNKS][];
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Written under appendLock, read without it
+    private final Map<String, Integer> statusCodes = new ConcurrentHashMap<>();
+    private final String[] statusNames = new String[MAX_STATUSES];
+    // Status updates seen, so catchUp() can tell whether one raced with its copy
+    private final AtomicLong statusUpdates = new AtomicLong();
+
+    // Written after the columns and dictionary, so it publishes both to readers
+    private volatile int size;
+    private volatile int statusCount = 1;
+
+    // Copies every order the store has published since the last call and
+    // returns the number of orders now held
+    public int catchUp(OrderStore store) {
+        if (size == store.size()) {
+            return size;
+        }
+        appendLock.lock();
+        try {
+            long updates = statusUpdates.get();
+            int from = size;
+            int to = store.size();
+            for (int position = from; position < to; position++) {
+                append(position, store.at(position));
+            }
+            size = to;
+            // An update that found these positions not yet copied left them to us
+            if (statusUpdates.get() != updates) {
+                for (int position = from; position < to; position++) {
+                    writeStatus(store, position);
+                }
+            }
+            return to;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Rewrites the status code of an updated order. Each writer re-reads the order
+    // after writing and writes again if its status moved on meanwhile, so
+    // concurrent updates of one order settle on the stored status.
+    public void statusChanged(OrderStore store, Order updated) {
+        statusUpdates.incrementAndGet();
+        long position = updated.getId() - store.firstId();
+        // Positions not copied yet are checked by catchUp() instead
+        if (position >= 0 && position < size) {
+            writeStatus(store, (int) position);
+        }
+    }
+
+    // Count, revenue and average amount per status. Orders without an amount
+    // count towards their group with an amount of zero.
+    public List<OrderAggregate> aggregateByStatus() {
+        int count = size;
+        // Sized for every possible code, as updates can write new codes mid-scan
+        long[] counts = new long[MAX_STATUSES];
+        double[] sums = new double[MAX_STATUSES];
+
+        for (int chunk = 0, remaining = count; remaining > 0; chunk++, remaining -= CHUNK_SIZE) {
+            byte[] statusColumn = statuses[chunk];
+            double[] amountColumn = amounts[chunk];
+            int length = Math.min(remaining, CHUNK_SIZE);
+            for (int i = 0; i < length; i++) {
+                int code = statusColumn[i] & 0xFF;
+                counts[code]++;
+                sums[code] += amountColumn[i];
+            }
+        }
+
+        int codes = statusCount;
+        List<OrderAggregate> result = new ArrayList<>(codes + 1);
+        for (int code = 0; code < codes; code++) {
+            if (counts[code] > 0) {
+                result.add(OrderAggregate.of(statusNames[code], counts[code], sums[code]));
+            }
+        }
+        if (counts[OTHER] > 0) {
+            result.add(OrderAggregate.of(OTHER_STATUS, counts[OTHER], sums[OTHER]));
+        }
+        return result;
+    }
+
+    // Count, revenue and average amount per time bucket in [from, to), optionally
+    // restricted to one status. Only non-empty buckets are returned, keyed by
+    // their start time.
+    public List<OrderAggregate> aggregateByTime(LocalDateTime from, LocalDateTime to,
+                                                long bucketSeconds, String status) {
+        long start = from.toEpochSecond(ZoneOffset.UTC);
+        long end = to.toEpochSecond(ZoneOffset.UTC);
+        if (bucketSeconds <= 0 || end <= start) {
+            throw new IllegalArgumentException("Time range and bucket size must be positive");
+        }
+        long bucketCount = (end - start + bucketSeconds - 1) / bucketSeconds;
+        if (bucketCount > 100_000) {
+            throw new IllegalArgumentException("Too many time buckets: " + bucketCount);
+        }
+        // -1 matches every status; an unknown status matches nothing, unless it
+        // may be one of the statuses folded into OTHER
+        int statusFilter = status == null ? -1 : codeOf(status);
+        if (statusFilter == Integer.MIN_VALUE) {
+            if (statusCount == OTHER) {
+                throw new IllegalArgumentException("Status is not tracked individually: " + status);
+            }
+            return List.of();
+        }
+
+        int count = size;
+        long[] counts = new long[(int) bucketCount];
+        double[] sums = new double[(int) bucketCount];
+        for (int chunk = 0, remaining = count; remaining > 0; chunk++, remaining -= CHUNK_SIZE) {
+            long[] timeColumn = createdAt[chunk];
+            double[] amountColumn = amounts[chunk];
+            byte[] statusColumn = statuses[chunk];
+            int length = Math.min(remaining, CHUNK_SIZE);
+            for (int i = 0; i < length; i++) {
+                long time = timeColumn[i];
+                if (time >= start && time < end
+                        && (statusFilter < 0 || (statusColumn[i] & 0xFF) == statusFilter)) {
+                    int bucket = (int) ((time - start) / bucketSeconds);
+                    counts[bucket]++;
+                    sums[bucket] += amountColumn[i];
+                }
+            }
+        }
+
+        List<OrderAggregate> result = new ArrayList<>();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] > 0) {
+                String key = from.plusSeconds(bucket * bucketSeconds).toString();
+                result.add(OrderAggregate.of(key, counts[bucket], sums[bucket]));
+            }
+        }
+        return result;
+    }
+
+    // Called with appendLock held
+    private void append(int position, Order order) {
+        int chunk = position >>> CHUNK_BITS;
+        int index = position & (CHUNK_SIZE - 1);
+        if (amounts[chunk] == null) {
+            amounts[chunk] = new double[CHUNK_SIZE];
+            createdAt[chunk] = new long[CHUNK_SIZE];
+            statuses[chunk] = new byte[CHUNK_SIZE];
+        }
+        if (order == null) {
+            // Abandoned id: matches no status and no time range
+            createdAt[chunk][index] = NO_TIMESTAMP;
+            statuses[chunk][index] = (byte) ABSENT;
+            return;
+        }
+        amounts[chunk][index] = order.getAmount() != null ? order.getAmount() : 0.0;
+        createdAt[chunk][index] = order.getCreatedAt() != null
+            ? order.getCreatedAt().toEpochSecond(ZoneOffset.UTC)
+            : NO_TIMESTAMP;
+        statuses[chunk][index] = (byte) encodeStatus(order.getStatus());
+    }
+
+    private void writeStatus(OrderStore store, int position) {
+        byte[] column = statuses[position >>> CHUNK_BITS];
+        int index = position & (CHUNK_SIZE - 1);
+        if (store.at(position) == null) {
+            return;
+        }
+        String status;
+        do {
+            status = store.at(position).getStatus();
+            // Volatile, so the re-read below cannot be ordered before the write
+            STATUS.setVolatile(column, index, (byte) statusCode(status));
+        } while (!Objects.equals(status, store.at(position).getStatus()));
+    }
+
+    private int statusCode(String status) {
+        Integer code = status != null ? statusCodes.get(status) : Integer.valueOf(0);
+        if (code != null) {
+            return code;
+        }
+        appendLock.lock();
+        try {
+            return encodeStatus(status);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Called with appendLock held
+    private int encodeStatus(String status) {
+        if (status == null) {
+            return 0;
+        }
+        Integer code = statusCodes.get(status);
+        if (code != null) {
+            return code;
+        }
+        if (statusCount == OTHER) {
+            // Not added to statusCodes, so codeOf() never mistakes it for a tracked status
+            return OTHER;
+        }
+        code = statusCount;
+        statusNames[code] = status;
+        // Counted before lock-free writers can look the code up
+        statusCount = code + 1;
+        statusCodes.put(status, code);
+        return code;
+    }
+
+    // Code of a known status, or Integer.MIN_VALUE when it has never been seen
+    private int codeOf(String status) {
+        Integer code = statusCodes.get(status);
+        return code != null ? code : Integer.MIN_VALUE;
+    }
+}
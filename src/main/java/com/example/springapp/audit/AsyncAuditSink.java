@@ -0,0 +1,204 @@
+package com.example.springapp.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Audit sink that takes events off the calling thread. record() only enqueues
+// into a lock-free ring buffer; a background writer drains it in batches and
+// appends each batch as JSON lines to a size-rotated file with one write.
+//
+// When the buffer is full the overflow policy decides between waiting, dropping
+// and sampling. Waiting parks rather than holding a monitor, so blocked virtual
+// threads release their carrier. Queue depth and the written, dropped and
+// failed counts are published as Micrometer meters (audit.*).
+//
+// An idle writer parks until a producer wakes it: it raises idle, checks the
+// buffer once more and parks, and a producer that sees idle after its offer
+// unparks it, so no event waits and an idle sink costs no wakeups.
+public final class AsyncAuditSink implements AuditSink, MeterBinder, AutoCloseable {
+    private static final int BATCH_SIZE = 1024;
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AuditRingBuffer buffer;
+    private final RotatingAuditFile file;
+    private final OverflowPolicy overflow;
+    private final int sampleRate;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong overflowed = new AtomicLong();
+    // Written by the writer thread only
+    private volatile long written;
+    private volatile long failed;
+    private volatile boolean running = true;
+    // Set by the writer while it is parked or about to park
+    private volatile boolean idle;
+    // record() calls in progress, so the writer can tell when the last one is done
+    private final AtomicInteger recording = new AtomicInteger();
+
+    public AsyncAuditSink(Path file, long maxFileBytes, int maxFiles,
+                          int capacity, OverflowPolicy overflow, int sampleRate) throws IOException {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        }
+        this.buffer = new AuditRingBuffer(capacity);
+        this.file = new RotatingAuditFile(file, maxFileBytes, maxFiles);
+        this.overflow = overflow;
+        this.sampleRate = sampleRate;
+        this.writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Events recorded once close() has begun are dropped
+    @Override
+    public void record(AuditEvent event) {
+        // Announced before running is read, so the writer does not finish while
+        // an event that saw running is still on its way into the buffer
+        recording.incrementAndGet();
+        try {
+            if (!running) {
+                dropped.increment();
+                return;
+            }
+            if (buffer.offer(event)) {
+                if (idle) {
+                    LockSupport.unpark(writer);
+                }
+                return;
+            }
+            switch (overflow) {
+                case BLOCK -> awaitRoom(event);
+                case DROP -> dropped.increment();
+                case SAMPLE -> {
+                    if (overflowed.getAndIncrement() % sampleRate == 0) {
+                        awaitRoom(event);
+                    } else {
+                        dropped.increment();
+                    }
+                }
+            }
+        } finally {
+            recording.decrementAndGet();
+        }
+    }
+
+    private void awaitRoom(AuditEvent event) {
+        while (running) {
+            // The writer may be parked; a full buffer needs it now
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return;
+            }
+        }
+        dropped.increment();
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    public long written() {
+        return written;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // Events lost to write errors
+    public long failed() {
+        return failed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("audit.queue.depth", this, AsyncAuditSink::queueDepth)
+            .description("Audit events waiting for the writer")
+            .register(registry);
+        Gauge.builder("audit.queue.capacity", buffer, AuditRingBuffer::capacity)
+            .register(registry);
+        FunctionCounter.builder("audit.events.written", this, AsyncAuditSink::written)
+            .register(registry);
+        FunctionCounter.builder("audit.events.dropped", this, AsyncAuditSink::dropped)
+            .description("Audit events discarded because the queue was full")
+            .register(registry);
+        FunctionCounter.builder("audit.events.failed", this, AsyncAuditSink::failed)
+            .description("Audit events lost to write errors")
+            .register(registry);
+    }
+
+    private void drain() {
+        AuditEvent[] batch = new AuditEvent[BATCH_SIZE];
+        StringBuilder lines = new StringBuilder(BATCH_SIZE * 128);
+        while (true) {
+            // Once closing with no record() in progress, nothing more can arrive
+            boolean last = !running && recording.get() == 0;
+            int count = buffer.drain(batch);
+            if (count == 0) {
+                if (last) {
+                    break;
+                }
+                if (running) {
+                    awaitEvents();
+                } else {
+                    // Closing: producers still in record() finish or give up shortly
+                    Thread.yield();
+                }
+                continue;
+            }
+            lines.setLength(0);
+            for (int i = 0; i < count; i++) {
+                batch[i].appendJson(lines);
+                lines.append('\n');
+            }
+            Arrays.fill(batch, 0, count, null);
+            try {
+                file.write(lines);
+                written += count;
+            } catch (IOException e) {
+                failed += count;
+                System.err.println("Audit batch of " + count + " events not written: " + e.getMessage());
+            }
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            System.err.println("Audit file not closed cleanly: " + e.getMessage());
+        }
+    }
+
+    // Parks until a producer or close() unparks the writer. idle is raised before
+    // the buffer is checked again, so an offer either lands in time to be seen
+    // here or sees idle and unparks.
+    private void awaitEvents() {
+        idle = true;
+        if (buffer.size() == 0 && running) {
+            LockSupport.park(this);
+        }
+        idle = false;
+    }
+
+    // Stops accepting waits, writes what is queued and closes the file
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
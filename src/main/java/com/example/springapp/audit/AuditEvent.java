@@ -0,0 +1,43 @@
+package com.example.springapp.audit;
+
+import com.example.java21features.stringtemplates.templateprocessors.JsonTemplateProcessor;
+
+import java.time.Instant;
+
+// One structured audit record. detail is optional (null when there is none).
+public record AuditEvent(long epochMillis, String event, String paymentId, double amount, String detail) {
+
+    // A JSON object on one line, e.g.
+    // {"at":"2024-01-01T00:00:00Z","event":"credit-card","paymentId":"cc-1","amount":99.5,"detail":"VISA"}
+    public void appendJson(StringBuilder line) {
+        line.append("{\"at\":\"").append(Instant.ofEpochMilli(epochMillis)).append("\",\"event\":");
+        appendString(line, event);
+        line.append(",\"paymentId\":");
+        appendString(line, paymentId);
+        line.append(",\"amount\":");
+        if (Double.isFinite(amount)) {
+            line.append(amount);
+        } else {
+            line.append("null");
+        }
+        if (detail != null) {
+            line.append(",\"detail\":");
+            appendString(line, detail);
+        }
+        line.append('}');
+    }
+
+    public String toJson() {
+        StringBuilder line = new StringBuilder(128);
+        appendJson(line);
+        return line.toString();
+    }
+
+    private static void appendString(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        JsonTemplateProcessor.escapeJsonValue(line.append('"'), value).append('"');
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.springapp.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded lock-free queue for many producers and a single consumer (Vyukov's
+// bounded queue). Each slot has a sequence number: a producer claims position p
+// by CAS on tail once the slot's sequence is p, fills it and publishes p + 1;
+// the consumer takes it and hands the slot back for position p + capacity. A
+// full buffer fails the offer instead of waiting.
+final class AuditRingBuffer {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<AuditEvent> events;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Written by the consumer only
+    private volatile long head;
+
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, at least 2: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.events = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(AuditEvent event) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long available = sequences.get(slot) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.lazySet(slot, event);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                // The consumer has not freed this slot from the previous lap yet
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    // Moves up to batch.length events into batch, oldest first; consumer only
+    int drain(AuditEvent[] batch) {
+        long position = head;
+        int count = 0;
+        while (count < batch.length) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                break;
+            }
+            batch[count++] = events.get(slot);
+            events.lazySet(slot, null);
+            sequences.set(slot, position + capacity);
+            position++;
+        }
+        head = position;
+        return count;
+    }
+
+    // Events waiting; approximate while producers and the consumer are active
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.springapp.audit;
+
+// Destination for audit events
+public interface AuditSink {
+
+    void record(AuditEvent event);
+
+    // Synchronous: prints each event on the calling thread, under the stdout lock
+    static AuditSink stdout() {
+        return event -> System.out.println(event.toJson());
+    }
+}
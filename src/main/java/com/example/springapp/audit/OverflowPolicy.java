@@ -0,0 +1,12 @@
+package com.example.springapp.audit;
+
+// What AsyncAuditSink does with an event when its buffer is full
+public enum OverflowPolicy {
+    // Wait for room: nothing is lost, but callers slow to the writer's pace
+    BLOCK,
+    // Discard the event and count it
+    DROP,
+    // Keep one in every sample-rate overflowing events (waiting for room for
+    // it) and discard the rest, so bursts stay visible in the log
+    SAMPLE
+}
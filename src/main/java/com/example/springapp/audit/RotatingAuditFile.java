@@ -0,0 +1,80 @@
+package com.example.springapp.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Append-only audit file that rotates by size: when a write would take it past
+// maxBytes, audit.log becomes audit.log.1, audit.log.1 becomes audit.log.2 and
+// so on, keeping at most maxFiles rotated files. A single batch is never split
+// across files. Used by one writer thread.
+final class RotatingAuditFile implements AutoCloseable {
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private FileChannel channel;
+    private long size;
+
+    RotatingAuditFile(Path file, long maxBytes, int maxFiles) throws IOException {
+        if (maxBytes <= 0 || maxFiles < 0) {
+            throw new IllegalArgumentException("Invalid rotation: " + maxBytes + " bytes, " + maxFiles + " files");
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    // Writes one batch of lines with a single channel write (or a few, for a
+    // partial write)
+    void write(CharSequence lines) throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(lines));
+        if (size > 0 && size + bytes.remaining() > maxBytes) {
+            rotate();
+        }
+        while (bytes.hasRemaining()) {
+            size += channel.write(bytes);
+        }
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        if (maxFiles == 0) {
+            Files.delete(file);
+        } else {
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path older = rotated(i);
+                if (Files.exists(older)) {
+                    Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path rotated(int generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.springapp.codec;
+
+import com.example.java21features.recordpatterns.model.Payment;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Compact binary wire format for the sealed Payment hierarchy.
+//
+// Each payment starts with a tag byte:
+//
+//   bits 0-1  subtype: 0 CreditCard, 1 PayPal, 2 BankTransfer
+//   bit 2     isInternational / isBusiness
+//   bit 3     amount is whole cents (zigzag varint) rather than an 8-byte double
+//
+// followed by the amount and the string fields in record order:
+//
+//   CreditCard    id status* lastFour cardType*
+//   PayPal        id status* email
+//   BankTransfer  id status* bank* reference
+//
+// A plain string is a varint of byte length + 1 (0 for null) and its UTF-8
+// bytes. Fields marked * repeat across payments and are dictionary coded: 0 is
+// null, 1 a new value (a plain string follows, and both sides append it to the
+// dictionary while it has room), and n >= 2 the dictionary entry n - 2.
+//
+// The dictionary makes an Encoder and its Decoder a pair: payments must be
+// decoded in the order they were encoded, and reset() on both sides starts
+// over (e.g. per frame or per connection). Neither class is thread-safe.
+public final class PaymentCodec {
+    static final int MAX_DICTIONARY_SIZE = 1024;
+
+    private static final int CREDIT_CARD = 0;
+    private static final int PAYPAL = 1;
+    private static final int BANK_TRANSFER = 2;
+    private static final int TYPE_MASK = 0b11;
+    private static final int FLAG = 1 << 2;
+    private static final int CENTS = 1 << 3;
+
+    private static final int NULL = 0;
+    private static final int NEW_ENTRY = 1;
+    private static final int FIRST_REFERENCE = 2;
+
+    private PaymentCodec() {}
+
+    public static final class Encoder {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final String[] entries = new String[MAX_DICTIONARY_SIZE];
+        private int size;
+
+        // Appends the payment at the buffer's position. When it does not fit,
+        // throws BufferOverflowException with the buffer's position and the
+        // dictionary as they were, so the caller can flush and write it again.
+        public void encode(Payment payment, ByteBuffer buffer) {
+            int start = buffer.position();
+            int dictionarySize = size;
+            try {
+                switch (payment) {
+                    case Payment.CreditCard card -> {
+                        putHeader(buffer, CREDIT_CARD, card.isInternational(), card.amount());
+                        putString(buffer, card.id());
+                        putShared(buffer, card.status());
+                        putString(buffer, card.lastFour());
+                        putShared(buffer, card.cardType());
+                    }
+                    case Payment.PayPal payPal -> {
+                        putHeader(buffer, PAYPAL, payPal.isBusiness(), payPal.amount());
+                        putString(buffer, payPal.id());
+                        putShared(buffer, payPal.status());
+                        putString(buffer, payPal.email());
+                    }
+                    case Payment.BankTransfer transfer -> {
+                        putHeader(buffer, BANK_TRANSFER, false, transfer.amount());
+                        putString(buffer, transfer.id());
+                        putShared(buffer, transfer.status());
+                        putShared(buffer, transfer.bank());
+                        putString(buffer, transfer.reference());
+                    }
+                }
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+                while (size > dictionarySize) {
+                    dictionary.remove(entries[--size]);
+                    entries[size] = null;
+                }
+                throw e;
+            }
+        }
+
+        public void reset() {
+            dictionary.clear();
+            Arrays.fill(entries, 0, size, null);
+            size = 0;
+        }
+
+        private void putShared(ByteBuffer buffer, String value) {
+            if (value == null) {
+                putVarint(buffer, NULL);
+                return;
+            }
+            Integer entry = dictionary.get(value);
+            if (entry != null) {
+                putVarint(buffer, FIRST_REFERENCE + entry);
+                return;
+            }
+            putVarint(buffer, NEW_ENTRY);
+            putString(buffer, value);
+            if (size < MAX_DICTIONARY_SIZE) {
+                dictionary.put(value, size);
+                entries[size++] = value;
+            }
+        }
+    }
+
+    public static final class Decoder {
+        private final String[] entries = new String[MAX_DICTIONARY_SIZE];
+        private int size;
+        // Staging for strings read from direct buffers, reused across payments
+        private byte[] scratch = new byte[64];
+
+        // Reads the payment at the buffer's position and advances past it.
+        // Throws IllegalArgumentException for malformed input. When the buffer
+        // ends mid-payment, throws BufferUnderflowException with the buffer's
+        // position and the dictionary as they were, so the caller can read more
+        // bytes and decode it again.
+        public Payment decode(ByteBuffer buffer) {
+            int start = buffer.position();
+            int dictionarySize = size;
+            try {
+                return decodePayment(buffer);
+            } catch (BufferUnderflowException e) {
+                buffer.position(start);
+                Arrays.fill(entries, dictionarySize, size, null);
+                size = dictionarySize;
+                throw e;
+            }
+        }
+
+        private Payment decodePayment(ByteBuffer buffer) {
+            int tag = buffer.get() & 0xff;
+            if ((tag & ~(TYPE_MASK | FLAG | CENTS)) != 0 || (tag & TYPE_MASK) > BANK_TRANSFER) {
+                throw new IllegalArgumentException("Malformed payment tag: " + tag);
+            }
+            boolean flag = (tag & FLAG) != 0;
+            double amount = (tag & CENTS) != 0 ? unzigzag(getVarint(buffer)) / 100.0 : buffer.getDouble();
+            return switch (tag & TYPE_MASK) {
+                case CREDIT_CARD -> new Payment.CreditCard(getString(buffer), amount, getShared(buffer),
+                    getString(buffer), getShared(buffer), flag);
+                case PAYPAL -> new Payment.PayPal(getString(buffer), amount, getShared(buffer),
+                    getString(buffer), flag);
+                case BANK_TRANSFER -> new Payment.BankTransfer(getString(buffer), amount, getShared(buffer),
+                    getShared(buffer), getString(buffer));
+                // Ruled out by the tag check above
+                default -> throw new IllegalStateException();
+            };
+        }
+
+        public void reset() {
+            Arrays.fill(entries, 0, size, null);
+            size = 0;
+        }
+
+        private String getShared(ByteBuffer buffer) {
+            long code = getVarint(buffer);
+            if (code == NULL) {
+                return null;
+            }
+            if (code == NEW_ENTRY) {
+                String value = getString(buffer);
+                if (value == null) {
+                    throw new IllegalArgumentException("Null dictionary entry");
+                }
+                if (size < MAX_DICTIONARY_SIZE) {
+                    entries[size++] = value;
+                }
+                return value;
+            }
+            long entry = code - FIRST_REFERENCE;
+            if (entry >= size) {
+                throw new IllegalArgumentException("Unknown dictionary entry " + entry + " of " + size);
+            }
+            return entries[(int) entry];
+        }
+
+        private String getString(ByteBuffer buffer) {
+            long encoded = getVarint(buffer);
+            if (encoded == 0) {
+                return null;
+            }
+            long length = encoded - 1;
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            int byteCount = (int) length;
+            String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), byteCount, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + byteCount);
+            } else {
+                if (scratch.length < byteCount) {
+                    scratch = new byte[Math.max(byteCount, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, byteCount);
+                value = new String(scratch, 0, byteCount, StandardCharsets.UTF_8);
+            }
+            return value;
+        }
+    }
+
+    private static void putHeader(ByteBuffer buffer, int type, boolean flag, double amount) {
+        // Whole cents when that decodes to the identical double (so never for -0.0 or NaN)
+        long cents = (long) Math.rint(amount * 100.0);
+        boolean exactCents = Math.abs(amount) < 1e15
+            && Double.doubleToRawLongBits(cents / 100.0) == Double.doubleToRawLongBits(amount);
+        buffer.put((byte) (type | (flag ? FLAG : 0) | (exactCents ? CENTS : 0)));
+        if (exactCents) {
+            putVarint(buffer, zigzag(cents));
+        } else {
+            buffer.putDouble(amount);
+        }
+    }
+
+    // Writes UTF-8 straight from the chars: the byte length first, then the bytes,
+    // with no intermediate array. Unpaired surrogates become '?' as in String.getBytes.
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            putVarint(buffer, 0);
+            return;
+        }
+        int length = value.length();
+        int byteCount = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byteCount++;
+            } else if (c < 0x800) {
+                byteCount += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                byteCount += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                byteCount++;
+            } else {
+                byteCount += 3;
+            }
+        }
+        putVarint(buffer, byteCount + 1L);
+        if (buffer.remaining() < byteCount) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xc0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xf0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xe0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    // Unsigned LEB128: 7 bits per byte, low bits first, high bit set on all but the last
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
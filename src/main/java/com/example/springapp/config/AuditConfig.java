@@ -0,0 +1,31 @@
+package com.example.springapp.config;
+
+import com.example.springapp.audit.AsyncAuditSink;
+import com.example.springapp.audit.OverflowPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class AuditConfig {
+
+    // Audit events go to audit.file as JSON lines, rotated at audit.max-file-size
+    // keeping audit.max-files old files. Up to audit.buffer-size events (a power
+    // of two) wait for the writer; past that audit.overflow applies: BLOCK, DROP,
+    // or SAMPLE (keep one in audit.sample-rate). The sink is also a MeterBinder,
+    // so Actuator publishes its audit.* metrics.
+    @Bean(destroyMethod = "close")
+    public AsyncAuditSink auditSink(
+            @Value("${audit.file:logs/audit.log}") String file,
+            @Value("${audit.max-file-size:64MB}") DataSize maxFileSize,
+            @Value("${audit.max-files:5}") int maxFiles,
+            @Value("${audit.buffer-size:8192}") int bufferSize,
+            @Value("${audit.overflow:BLOCK}") OverflowPolicy overflow,
+            @Value("${audit.sample-rate:100}") int sampleRate) throws IOException {
+        return new AsyncAuditSink(Path.of(file), maxFileSize.toBytes(), maxFiles, bufferSize, overflow, sampleRate);
+    }
+}
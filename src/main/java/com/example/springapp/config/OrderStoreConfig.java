@@ -0,0 +1,35 @@
+package com.example.springapp.config;
+
+import com.example.springapp.store.ConcurrentOrderStore;
+import com.example.springapp.store.DurableOrderStore;
+import com.example.springapp.store.OrderStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class OrderStoreConfig {
+
+    // Set orders.persistence.enabled=true to keep orders across restarts in a
+    // write-ahead log under orders.persistence.directory, compacted into a
+    // snapshot every orders.persistence.snapshot-interval (0 disables)
+    @Bean
+    public OrderStore orderStore(
+            @Value("${orders.persistence.enabled:false}") boolean persistent,
+            @Value("${orders.persistence.directory:data/orders}") String directory,
+            @Value("${orders.persistence.segment-size:67108864}") int segmentSize,
+            @Value("${orders.persistence.snapshot-interval:5m}") Duration snapshotInterval) throws IOException {
+        if (persistent) {
+            DurableOrderStore store = DurableOrderStore.open(Path.of(directory), segmentSize);
+            if (!snapshotInterval.isZero()) {
+                store.scheduleSnapshots(snapshotInterval);
+            }
+            return store;
+        }
+        return new ConcurrentOrderStore();
+    }
+}
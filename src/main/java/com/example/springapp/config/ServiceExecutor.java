@@ -0,0 +1,71 @@
+package com.example.springapp.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Runs blocking service-layer work off the calling thread: one virtual thread
+// per task in virtual mode, or a fixed pool of platform threads otherwise.
+//
+// Deliberately not an Executor bean, so Spring Boot's own applicationTaskExecutor
+// (used for async MVC such as StreamingResponseBody) is still auto-configured.
+public final class ServiceExecutor implements AutoCloseable {
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    private ServiceExecutor(ExecutorService executor, boolean virtual) {
+        this.executor = executor;
+        this.virtual = virtual;
+    }
+
+    public static ServiceExecutor create(boolean virtual, int poolSize) {
+        if (virtual) {
+            return new ServiceExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("service-", 0).factory()), true);
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Service pool size must be positive: " + poolSize);
+        }
+        return new ServiceExecutor(
+            Executors.newFixedThreadPool(poolSize, Thread.ofPlatform().name("service-", 0).daemon().factory()), false);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    // Runs every task and returns their results in task order. A task that
+    // throws fails the call once all tasks are done.
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<Future<T>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for service tasks", e);
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for service tasks", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException("Service task failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.springapp.config;
+
+import com.example.java21features.stringtemplates.templateprocessors.CompiledTemplate;
+import com.example.java21features.stringtemplates.templateprocessors.JsonTemplateProcessor;
+import com.example.java21features.stringtemplates.templateprocessors.SqlTemplateProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TemplateCacheConfig {
+
+    // The shared template caches are static; these binders let Actuator publish
+    // their hit, miss and eviction counts as cache.* metrics
+    @Bean
+    public TemplateCacheMetrics textTemplateCacheMetrics() {
+        return new TemplateCacheMetrics(CompiledTemplate.cache(), "templates.text");
+    }
+
+    @Bean
+    public TemplateCacheMetrics jsonTemplateCacheMetrics() {
+        return new TemplateCacheMetrics(JsonTemplateProcessor.cache(), "templates.json");
+    }
+
+    @Bean
+    public TemplateCacheMetrics sqlTemplateCacheMetrics() {
+        return new TemplateCacheMetrics(SqlTemplateProcessor.cache(), "templates.sql");
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.springapp.config;
+
+import com.example.java21features.stringtemplates.templateprocessors.TemplateCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+// Publishes a TemplateCache as the standard cache.* meters (cache.gets with
+// result=hit|miss, cache.evictions, cache.size, cache.puts) tagged with its name,
+// plus cache.max.size
+public class TemplateCacheMetrics extends CacheMeterBinder<TemplateCache<?>> {
+
+    public TemplateCacheMetrics(TemplateCache<?> cache, String name) {
+        super(cache, name, Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        TemplateCache<?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        TemplateCache<?> cache = getCache();
+        return cache == null ? 0 : cache.hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TemplateCache<?> cache = getCache();
+        return cache == null ? null : cache.misses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TemplateCache<?> cache = getCache();
+        return cache == null ? null : cache.evictions();
+    }
+
+    // Every miss that loads is a put
+    @Override
+    protected long putCount() {
+        TemplateCache<?> cache = getCache();
+        return cache == null ? 0 : cache.misses();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.max.size", getCache(), TemplateCache::maximumSize)
+            .tags(getTagsWithCacheName())
+            .description("The maximum number of entries the cache holds")
+            .register(registry);
+    }
+}
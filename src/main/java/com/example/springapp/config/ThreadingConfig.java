@@ -0,0 +1,25 @@
+package com.example.springapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ThreadingConfig {
+
+    // spring.threads.virtual.enabled=true runs every request on its own virtual
+    // thread (Spring Boot switches Tomcat's executor) and, through this bean,
+    // the blocking work services fan out as well. Otherwise requests use Tomcat's
+    // platform pool (server.tomcat.threads.max) and services a pool of
+    // app.service-executor.pool-size platform threads.
+    //
+    // New code on these paths guards shared state with ReentrantLock rather than
+    // synchronized, which would pin a virtual thread to its carrier while it
+    // blocks. Run with -Djdk.tracePinnedThreads=short to print any pinning.
+    @Bean
+    public ServiceExecutor serviceExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtual,
+            @Value("${app.service-executor.pool-size:200}") int poolSize) {
+        return ServiceExecutor.create(virtual, poolSize);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.springapp.controller;
+
+import com.example.springapp.analytics.OrderAggregate;
+import com.example.springapp.analytics.OrderAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders/analytics")
+public class OrderAnalyticsController {
+    private final OrderAnalyticsService analyticsService;
+
+    public OrderAnalyticsController(OrderAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/by-status")
+    public ResponseEntity<List<OrderAggregate>> revenueByStatus() {
+        return ResponseEntity.ok(analyticsService.revenueByStatus());
+    }
+
+    // e.g. /by-time?from=2024-01-01T00:00:00&to=2024-02-01T00:00:00&bucket=P1D&status=COMPLETED
+    @GetMapping("/by-time")
+    public ResponseEntity<List<OrderAggregate>> revenueByTime(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "P1D") String bucket,
+            @RequestParam(required = false) String status) {
+        try {
+            return ResponseEntity.ok(analyticsService.revenueByTime(from, to, Duration.parse(bucket), status));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
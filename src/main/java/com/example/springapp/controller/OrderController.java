@@ -1,30 +1,103 @@
 package com.example.springapp.controller;
 
 import com.example.springapp.model.Order;
+import com.example.springapp.model.OrderStatusChange;
+import com.example.springapp.service.OrderBatchResult;
+import com.example.springapp.service.OrderExportService;
 import com.example.springapp.service.OrderService;
+import com.example.springapp.service.OrderStatusUpdate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderExportService orderExportService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
     }
 
+    // Offset mode: ?page=&size=. Cursor mode: ?after=<cursor>&limit=n, where after
+    // is omitted for the first page and then taken from the previous nextCursor
     @GetMapping
     public ResponseEntity<Map<String, Object>> getOrdersWithPagination(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         
+        if (after != null || limit != null) {
+            return getOrdersAfter(after, limit != null ? limit : size);
+        }
         Map<String, Object> response = orderService.getOrdersWithPagination(page, size);
         return ResponseEntity.ok(response);
     }
 
+    private ResponseEntity<Map<String, Object>> getOrdersAfter(String after, int limit) {
+        return keysetResponse(limit, () -> orderService.getOrdersAfter(after, limit));
+    }
+
+    // Index lookups, paged with the same opaque cursor as GET /api/orders
+    @GetMapping("/by-status/{status}")
+    public ResponseEntity<Map<String, Object>> getOrdersByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return keysetResponse(limit, () -> orderService.getOrdersByStatus(status, after, limit));
+    }
+
+    @GetMapping("/by-customer/{customerName}")
+    public ResponseEntity<Map<String, Object>> getOrdersByCustomer(
+            @PathVariable String customerName,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return keysetResponse(limit, () -> orderService.getOrdersByCustomer(customerName, after, limit));
+    }
+
+    @GetMapping("/by-created-at")
+    public ResponseEntity<List<Order>> getOrdersCreatedBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || !from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orderService.getOrdersCreatedBetween(from, to, limit));
+    }
+
+    private ResponseEntity<Map<String, Object>> keysetResponse(int limit, Supplier<Map<String, Object>> page) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(page.get());
+        } catch (IllegalArgumentException e) {
+            // Malformed cursor
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Full export as NDJSON, streamed with chunked transfer in constant memory
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrders() {
+        StreamingResponseBody body = orderExportService::writeNdjson;
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
         Order order = orderService.getOrderById(id);
@@ -39,4 +112,29 @@ public class OrderController {
         Order createdOrder = orderService.createOrder(order);
         return ResponseEntity.ok(createdOrder);
     }
-}
\ No newline at end of file
+
+    // Status update with optimistic concurrency: 409 with the current order when
+    // the transition is not allowed or expectedVersion is stale
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<OrderStatusUpdate> updateStatus(@PathVariable Long id,
+                                                          @RequestBody OrderStatusChange change) {
+        OrderStatusUpdate result;
+        try {
+            result = orderService.updateStatus(id, change.status(), change.expectedVersion());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return switch (result.outcome()) {
+            case UPDATED -> ResponseEntity.ok(result);
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case CONFLICT -> ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        };
+    }
+
+    // Bulk ingestion: per-item results, rejected items do not fail the batch
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResult> createOrders(@RequestBody List<Order> orders) {
+        OrderBatchResult result = orderService.createOrders(orders);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.springapp.controller;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.service.PaymentService;
+import com.example.springapp.service.ReviewScreeningResult;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payments")
+public class PaymentController {
+    private final PaymentService paymentService;
+
+    public PaymentController(PaymentService paymentService) {
+        this.paymentService = paymentService;
+    }
+
+    // Bulk needsReview: the response flags which payments, by position in the
+    // request, need manual review
+    @PostMapping("/review-screening")
+    public ResponseEntity<ReviewScreeningResult> screenForReview(@RequestBody List<Payment> payments) {
+        try {
+            return ResponseEntity.ok(ReviewScreeningResult.of(payments.size(), paymentService.screenForReview(payments)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.springapp.format;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+// A String.format pattern parsed once, for messages built on hot paths.
+//
+// Supports %s, %d, %.2f and %%. Arguments are appended one at a time through an
+// Appender with primitive overloads, so nothing is boxed, no Formatter is
+// created and the pattern is never re-parsed:
+//
+//   CompiledFormat.compile("Paid %s: $%.2f").start().add(id).add(amount).end().toString()
+//
+// %.2f renders exactly as String.format does in an English locale (half-up on
+// the shortest decimal form of the double), always with a '.' separator.
+public final class CompiledFormat {
+    private static final char STRING = 's';
+    private static final char INTEGER = 'd';
+    private static final char MONEY = 'f';
+    // Beyond this many cents a double's fraction is too coarse for the fast path
+    private static final double FAST_MONEY_LIMIT = 1e15;
+
+    private final String pattern;
+    // literals[i] precedes argument i; the last one follows the last argument
+    private final String[] literals;
+    private final char[] conversions;
+    private final int literalLength;
+
+    private CompiledFormat(String pattern, String[] literals, char[] conversions) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.conversions = conversions;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    // Throws IllegalArgumentException for a conversion other than %s, %d, %.2f and %%
+    public static CompiledFormat compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder conversions = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+            } else if (pattern.startsWith("%%", i)) {
+                literal.append('%');
+                i += 2;
+            } else {
+                char conversion;
+                if (pattern.startsWith("%s", i)) {
+                    conversion = STRING;
+                    i += 2;
+                } else if (pattern.startsWith("%d", i)) {
+                    conversion = INTEGER;
+                    i += 2;
+                } else if (pattern.startsWith("%.2f", i)) {
+                    conversion = MONEY;
+                    i += 4;
+                } else {
+                    throw new IllegalArgumentException("Unsupported conversion at " + i + " in '" + pattern + "'");
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                conversions.append(conversion);
+            }
+        }
+        literals.add(literal.toString());
+        return new CompiledFormat(pattern, literals.toArray(String[]::new), conversions.toString().toCharArray());
+    }
+
+    public int arguments() {
+        return conversions.length;
+    }
+
+    // Starts a message in a new builder sized for typical arguments
+    public Appender start() {
+        return appendTo(new StringBuilder(literalLength + 16 * conversions.length));
+    }
+
+    // Starts a message at the end of out, e.g. a builder reused across messages
+    public Appender appendTo(StringBuilder out) {
+        out.append(literals[0]);
+        return new Appender(out);
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    // Fills the arguments in order; end() checks that all of them were given
+    public final class Appender {
+        private final StringBuilder out;
+        private int argument;
+
+        private Appender(StringBuilder out) {
+            this.out = out;
+        }
+
+        public Appender add(String value) {
+            next(STRING);
+            out.append(value);
+            return literal();
+        }
+
+        public Appender add(long value) {
+            if (conversion() == MONEY) {
+                throw mismatch("an integer");
+            }
+            argument++;
+            out.append(value);
+            return literal();
+        }
+
+        public Appender add(double value) {
+            switch (conversion()) {
+                case MONEY -> appendMoney(out, value);
+                case STRING -> out.append(value);
+                default -> throw mismatch("a double");
+            }
+            argument++;
+            return literal();
+        }
+
+        // The builder holding the message, once every argument has been added
+        public StringBuilder end() {
+            if (argument != conversions.length) {
+                throw new IllegalStateException("'" + pattern + "' takes " + conversions.length
+                    + " arguments, got " + argument);
+            }
+            return out;
+        }
+
+        private char conversion() {
+            if (argument >= conversions.length) {
+                throw new IllegalStateException("'" + pattern + "' takes " + conversions.length + " arguments");
+            }
+            return conversions[argument];
+        }
+
+        private void next(char expected) {
+            if (conversion() != expected) {
+                throw mismatch("a string");
+            }
+            argument++;
+        }
+
+        private Appender literal() {
+            out.append(literals[argument]);
+            return this;
+        }
+
+        private IllegalArgumentException mismatch(String given) {
+            return new IllegalArgumentException("Argument " + argument + " of '" + pattern + "' is %"
+                + (conversions[argument] == MONEY ? ".2f" : String.valueOf(conversions[argument])) + ", not " + given);
+        }
+    }
+
+    // Appends value as String.format("%.2f", value) would in an English locale.
+    // Java rounds the shortest decimal form of the double half-up, so 1.005
+    // (really 1.00499999...) prints as 1.01. Away from a half-cent tie, rounding
+    // value * 100 directly gives the same cents; ties and huge values take the
+    // exact path through BigDecimal.
+    public static StringBuilder appendMoney(StringBuilder out, double value) {
+        if (!Double.isFinite(value)) {
+            return out.append(Double.isNaN(value) ? "NaN" : value > 0 ? "Infinity" : "-Infinity");
+        }
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        double scaled = Math.abs(value) * 100.0;
+        long cents;
+        if (scaled < FAST_MONEY_LIMIT) {
+            double whole = Math.floor(scaled);
+            double fraction = scaled - whole;
+            // Generous margin for the error of the multiplication and of the shortest form
+            double margin = 4 * Math.ulp(scaled);
+            if (Math.abs(fraction - 0.5) > margin) {
+                cents = (long) whole + (fraction > 0.5 ? 1 : 0);
+            } else {
+                cents = exactCents(Math.abs(value));
+            }
+        } else {
+            return out.append(new BigDecimal(Double.toString(value)).setScale(2, RoundingMode.HALF_UP).toPlainString());
+        }
+        if (negative) {
+            out.append('-');
+        }
+        out.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    private static long exactCents(double magnitude) {
+        return new BigDecimal(Double.toString(magnitude)).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.springapp.fraud;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.service.MoneySum;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Streaming velocity checks over a payment feed. Where PaymentService.needsReview
+// looks at one payment at a time, this keeps sliding-window counts and amount
+// sums per card (lastFour + cardType), per PayPal email and per bank, and flags
+// payments that push one of them over its limits.
+//
+// Memory is fixed when the detector is built (see VelocityWindow), whatever the
+// number of distinct keys in the feed. Not thread-safe: use one detector per
+// stream, or per partition of a stream keyed consistently.
+public class VelocityDetector {
+
+    public enum Dimension {
+        CARD, EMAIL, BANK;
+
+        public int flag() {
+            return 1 << ordinal();
+        }
+    }
+
+    private final VelocityWindow cards;
+    private final VelocityWindow emails;
+    private final VelocityWindow banks;
+    private final long[] flagged = new long[Dimension.values().length];
+    private final VelocityLimits cardLimits;
+    private final VelocityLimits emailLimits;
+    private final VelocityLimits bankLimits;
+
+    public VelocityDetector(VelocityLimits cardLimits, VelocityLimits emailLimits, VelocityLimits bankLimits) {
+        this.cardLimits = cardLimits;
+        this.emailLimits = emailLimits;
+        this.bankLimits = bankLimits;
+        this.cards = new VelocityWindow(cardLimits);
+        this.emails = new VelocityWindow(emailLimits);
+        this.banks = new VelocityWindow(bankLimits);
+    }
+
+    // Cards: 10 payments or $5,000 in 10 minutes. Emails: 20 payments or $10,000
+    // in an hour. Banks carry every customer's transfers, so their limits are
+    // per minute: 2,000 transfers or $5M.
+    public static VelocityDetector withDefaults() {
+        return new VelocityDetector(
+            new VelocityLimits(Duration.ofMinutes(10), 10, 10, 500_000, 1 << 16),
+            new VelocityLimits(Duration.ofHours(1), 12, 20, 1_000_000, 1 << 16),
+            new VelocityLimits(Duration.ofMinutes(1), 12, 2_000, 500_000_000, 1 << 10));
+    }
+
+    // Records a payment made at epochMillis and returns the flags of the
+    // dimensions whose window it takes over the limits, or 0. Payments should
+    // arrive roughly in time order; one older than its key's window is not counted.
+    // An amount that is NaN, infinite or out of range is rejected with
+    // IllegalArgumentException (see MoneySum.toCents) and nothing is recorded.
+    public int observe(Payment payment, long epochMillis) {
+        long cents = MoneySum.toCents(payment.amount());
+        return switch (payment) {
+            case Payment.CreditCard card -> check(Dimension.CARD, cards, cardLimits,
+                cards.record(VelocityWindow.hash(card.lastFour(), card.cardType()), epochMillis, cents));
+            case Payment.PayPal payPal -> check(Dimension.EMAIL, emails, emailLimits,
+                emails.record(VelocityWindow.hash(payPal.email(), null), epochMillis, cents));
+            case Payment.BankTransfer transfer -> check(Dimension.BANK, banks, bankLimits,
+                banks.record(VelocityWindow.hash(transfer.bank(), null), epochMillis, cents));
+        };
+    }
+
+    public static Set<Dimension> dimensions(int flags) {
+        Set<Dimension> dimensions = EnumSet.noneOf(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            if ((flags & dimension.flag()) != 0) {
+                dimensions.add(dimension);
+            }
+        }
+        return dimensions;
+    }
+
+    // Payments flagged so far in a dimension
+    public long flagged(Dimension dimension) {
+        return flagged[dimension.ordinal()];
+    }
+
+    // Keys whose history was dropped to make room while their window was still
+    // open; a steadily growing count means the capacity is too small for the feed
+    public long evictions() {
+        return cards.evictions() + emails.evictions() + banks.evictions();
+    }
+
+    // Payments that arrived too late to fall inside their window
+    public long late() {
+        return cards.late() + emails.late() + banks.late();
+    }
+
+    private int check(Dimension dimension, VelocityWindow window, VelocityLimits limits, int slot) {
+        if (window.count(slot) > limits.maxPayments() || window.cents(slot) > limits.maxAmountCents()) {
+            flagged[dimension.ordinal()]++;
+            return dimension.flag();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.springapp.fraud;
+
+import java.time.Duration;
+
+// Limits for one sliding window: more than maxPayments payments or more than
+// maxAmountCents in total within the window is a velocity anomaly. The window
+// slides in steps of window / buckets, and at most capacity keys are tracked.
+public record VelocityLimits(Duration window, int buckets, int maxPayments, long maxAmountCents, int capacity) {
+
+    public VelocityLimits {
+        if (buckets <= 0 || window.toMillis() < buckets || window.toMillis() % buckets != 0) {
+            throw new IllegalArgumentException("Window " + window + " does not split into " + buckets + " buckets");
+        }
+        if (maxPayments < 0 || maxAmountCents < 0) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+    }
+
+    long bucketMillis() {
+        return window.toMillis() / buckets;
+    }
+}
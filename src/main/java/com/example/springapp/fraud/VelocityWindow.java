@@ -0,0 +1,158 @@
+package com.example.springapp.fraud;
+
+import java.util.Arrays;
+
+// Sliding-window payment counts and amount sums per key, in fixed memory.
+//
+// Each key owns a ring of time buckets plus running totals for the whole ring;
+// moving to a newer bucket subtracts the buckets that fall out of the window, so
+// an update is O(1) amortized. Keys are 64-bit hashes in an open-addressed table
+// of fixed capacity. When every slot of a key's probe run is taken, the key seen
+// longest ago gives up its slot - if its window has already expired nothing is
+// lost, otherwise the eviction is counted.
+//
+// Not thread-safe.
+final class VelocityWindow {
+    private static final int MAX_PROBES = 16;
+    private static final long EMPTY = 0;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int mask;
+    private final long[] keys;
+    // Absolute bucket number (time / bucketMillis) of the newest bucket per key
+    private final long[] newestBucket;
+    private final int[] windowCount;
+    private final long[] windowCents;
+    // capacity * buckets, indexed slot * buckets + bucket % buckets
+    private final int[] bucketCount;
+    private final long[] bucketCents;
+    private long evictions;
+    private long late;
+
+    VelocityWindow(VelocityLimits limits) {
+        this.bucketMillis = limits.bucketMillis();
+        this.buckets = limits.buckets();
+        int capacity = Integer.highestOneBit(Math.max(limits.capacity(), MAX_PROBES) - 1) << 1;
+        this.mask = capacity - 1;
+        this.keys = new long[capacity];
+        this.newestBucket = new long[capacity];
+        this.windowCount = new int[capacity];
+        this.windowCents = new long[capacity];
+        this.bucketCount = new int[capacity * buckets];
+        this.bucketCents = new long[capacity * buckets];
+    }
+
+    // Adds a payment for the key at the given time and returns the key's slot,
+    // whose window totals include it. A payment older than the key's window is
+    // counted as late and not added.
+    int record(long key, long epochMillis, long cents) {
+        long bucket = epochMillis / bucketMillis;
+        int slot = slot(key == EMPTY ? 1 : key, bucket);
+        long newest = newestBucket[slot];
+        if (bucket > newest) {
+            expire(slot, newest, bucket);
+        } else if (bucket <= newest - buckets) {
+            late++;
+            return slot;
+        }
+        int index = slot * buckets + (int) (bucket % buckets);
+        bucketCount[index]++;
+        bucketCents[index] += cents;
+        windowCount[slot]++;
+        windowCents[slot] += cents;
+        return slot;
+    }
+
+    int count(int slot) {
+        return windowCount[slot];
+    }
+
+    long cents(int slot) {
+        return windowCents[slot];
+    }
+
+    // Keys dropped while their window still held payments
+    long evictions() {
+        return evictions;
+    }
+
+    // Payments that arrived after their window had passed
+    long late() {
+        return late;
+    }
+
+    private int slot(long key, long bucket) {
+        int start = (int) key & mask;
+        int victim = start;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            if (keys[slot] == key) {
+                return slot;
+            }
+            if (keys[slot] == EMPTY) {
+                claim(slot, key, bucket);
+                return slot;
+            }
+            if (newestBucket[slot] < newestBucket[victim]) {
+                victim = slot;
+            }
+        }
+        // Slots never empty again, so a key is always found before the first empty one
+        if (newestBucket[victim] > bucket - buckets && windowCount[victim] > 0) {
+            evictions++;
+        }
+        claim(victim, key, bucket);
+        return victim;
+    }
+
+    private void claim(int slot, long key, long bucket) {
+        keys[slot] = key;
+        newestBucket[slot] = bucket;
+        windowCount[slot] = 0;
+        windowCents[slot] = 0;
+        int from = slot * buckets;
+        Arrays.fill(bucketCount, from, from + buckets, 0);
+        Arrays.fill(bucketCents, from, from + buckets, 0);
+    }
+
+    // Clears the buckets after newest up to and including bucket, taking them out
+    // of the window totals
+    private void expire(int slot, long newest, long bucket) {
+        long steps = Math.min(bucket - newest, buckets);
+        int base = slot * buckets;
+        for (long step = 1; step <= steps; step++) {
+            int index = base + (int) ((newest + step) % buckets);
+            windowCount[slot] -= bucketCount[index];
+            windowCents[slot] -= bucketCents[index];
+            bucketCount[index] = 0;
+            bucketCents[index] = 0;
+        }
+        newestBucket[slot] = bucket;
+    }
+
+    // 64-bit FNV-1a over both parts (with the first part's length, so "ab"+"c"
+    // and "a"+"bc" differ), finished with the MurmurHash3 mixer so the low bits
+    // used for the table index are well spread
+    static long hash(String first, String second) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, first);
+        h = (h ^ (first == null ? -1 : first.length())) * 0x100000001b3L;
+        h = mix(h, second);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long mix(long h, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        return h;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.springapp.model;
 
+import com.example.java21features.recordpatterns.model.ValueDictionary;
+
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -9,6 +11,8 @@ public class Order {
     private Double amount;
     private LocalDateTime createdAt;
     private String status;
+    // Bumped by every status update, for optimistic concurrency
+    private long version;
 
     // Default constructor
     public Order() {}
@@ -19,7 +23,7 @@ public class Order {
         this.customerName = customerName;
         this.amount = amount;
         this.createdAt = createdAt;
-        this.status = status;
+        this.status = ValueDictionary.STATUSES.canonical(status);
     }
 
     // Getters and Setters
@@ -36,7 +40,11 @@ public class Order {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
     public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    // One shared instance per status value (see ValueDictionary)
+    public void setStatus(String status) { this.status = ValueDictionary.STATUSES.canonical(status); }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 
     // equals and hashCode
     @Override
@@ -61,6 +69,7 @@ public class Order {
                 ", amount=" + amount +
                 ", createdAt=" + createdAt +
                 ", status='" + status + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.example.springapp.model;
+
+// Body of a status update; expectedVersion is optional and, when set, makes the
+// update fail unless the order is still at that version
+public record OrderStatusChange(String status, Long expectedVersion) {}
@@ -0,0 +1,144 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// A fee rule table compiled for evaluation: each rule becomes a rate and a flat
+// fee held in primitive fields for its payment subtype and variant, so computing
+// a fee is one sealed-type switch and a multiply-add, with no lookups or
+// dereferences on the hot path.
+//
+// The table is a set of properties, one per rule:
+//
+//   credit-card.domestic      = 2%
+//   credit-card.international = 3%
+//   paypal.personal           = 3.4%
+//   paypal.business           = 2.9%
+//   bank-transfer             = 5.00
+//
+// where a value is a percentage of the amount, a flat fee, or both
+// ("1.5% + 0.30"). Every rule must be present.
+public final class FeeSchedule {
+    static final List<String> RULES = List.of(
+        "credit-card.domestic", "credit-card.international",
+        "paypal.personal", "paypal.business",
+        "bank-transfer");
+
+    private static final FeeSchedule DEFAULTS = parse(Map.of(
+        "credit-card.domestic", "2%",
+        "credit-card.international", "3%",
+        "paypal.personal", "3.4%",
+        "paypal.business", "2.9%",
+        "bank-transfer", "5.00"));
+
+    private final double creditCardDomesticRate;
+    private final double creditCardDomesticFlat;
+    private final double creditCardInternationalRate;
+    private final double creditCardInternationalFlat;
+    private final double payPalPersonalRate;
+    private final double payPalPersonalFlat;
+    private final double payPalBusinessRate;
+    private final double payPalBusinessFlat;
+    private final double bankTransferRate;
+    private final double bankTransferFlat;
+
+    private FeeSchedule(Map<String, Fee> fees) {
+        Fee fee = fees.get("credit-card.domestic");
+        this.creditCardDomesticRate = fee.rate();
+        this.creditCardDomesticFlat = fee.flat();
+        fee = fees.get("credit-card.international");
+        this.creditCardInternationalRate = fee.rate();
+        this.creditCardInternationalFlat = fee.flat();
+        fee = fees.get("paypal.personal");
+        this.payPalPersonalRate = fee.rate();
+        this.payPalPersonalFlat = fee.flat();
+        fee = fees.get("paypal.business");
+        this.payPalBusinessRate = fee.rate();
+        this.payPalBusinessFlat = fee.flat();
+        fee = fees.get("bank-transfer");
+        this.bankTransferRate = fee.rate();
+        this.bankTransferFlat = fee.flat();
+    }
+
+    // The fees RecordPatternsDemo.calculateFees hard-codes
+    public static FeeSchedule defaults() {
+        return DEFAULTS;
+    }
+
+    // Compiles a rule table; throws IllegalArgumentException naming the first
+    // missing, unknown or malformed rule
+    public static FeeSchedule parse(Map<String, String> rules) {
+        Set<String> unknown = new TreeSet<>(rules.keySet());
+        RULES.forEach(unknown::remove);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown fee rules: " + unknown);
+        }
+        Map<String, Fee> fees = new HashMap<>();
+        for (String rule : RULES) {
+            String value = rules.get(rule);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing fee rule: " + rule);
+            }
+            fees.put(rule, Fee.parse(rule, value));
+        }
+        return new FeeSchedule(fees);
+    }
+
+    public double feeFor(Payment payment) {
+        return switch (payment) {
+            case Payment.CreditCard card -> card.isInternational()
+                ? card.amount() * creditCardInternationalRate + creditCardInternationalFlat
+                : card.amount() * creditCardDomesticRate + creditCardDomesticFlat;
+            case Payment.PayPal payPal -> payPal.isBusiness()
+                ? payPal.amount() * payPalBusinessRate + payPalBusinessFlat
+                : payPal.amount() * payPalPersonalRate + payPalPersonalFlat;
+            case Payment.BankTransfer transfer -> transfer.amount() * bankTransferRate + bankTransferFlat;
+        };
+    }
+
+    // Fee of each payment, in list order
+    public double[] feesFor(List<Payment> payments) {
+        double[] fees = new double[payments.size()];
+        int i = 0;
+        for (Payment payment : payments) {
+            fees[i++] = feeFor(payment);
+        }
+        return fees;
+    }
+
+    // rate is a fraction of the amount (0.029 for 2.9%)
+    record Fee(double rate, double flat) {
+
+        static Fee parse(String rule, String value) {
+            double rate = 0;
+            double flat = 0;
+            boolean seenRate = false;
+            boolean seenFlat = false;
+            for (String part : value.split("\\+")) {
+                String term = part.strip();
+                try {
+                    if (term.endsWith("%") && !seenRate) {
+                        rate = Double.parseDouble(term.substring(0, term.length() - 1).strip()) / 100.0;
+                        seenRate = true;
+                    } else if (!term.endsWith("%") && !seenFlat) {
+                        flat = Double.parseDouble(term);
+                        seenFlat = true;
+                    } else {
+                        throw new NumberFormatException();
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed fee for " + rule + ": '" + value + "'");
+                }
+            }
+            if (!Double.isFinite(rate) || !Double.isFinite(flat) || rate < 0 || flat < 0) {
+                throw new IllegalArgumentException("Fee for " + rule + " must be a non-negative number: '" + value + "'");
+            }
+            return new Fee(rate, flat);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Payment fees from a FeeSchedule. With payments.fees.schedule pointing at a
+// properties file, the schedule is loaded from it and reloaded whenever the
+// file changes (checked every payments.fees.reload-interval); otherwise the
+// built-in defaults apply. A file that fails to parse is reported and the
+// previous schedule stays in force until a check finds a file that parses.
+@Service
+public class FeeService implements AutoCloseable {
+    private final Path scheduleFile;
+    private volatile FeeSchedule schedule = FeeSchedule.defaults();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Guarded by reloadLock
+    private FileTime loadedVersion;
+    private ScheduledExecutorService reloader;
+
+    public FeeService(@Value("${payments.fees.schedule:}") String scheduleFile,
+                      @Value("${payments.fees.reload-interval:10s}") Duration reloadInterval) {
+        this.scheduleFile = scheduleFile.isBlank() ? null : Path.of(scheduleFile);
+        if (this.scheduleFile == null) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load fee schedule " + scheduleFile, e);
+        }
+        if (!reloadInterval.isZero()) {
+            reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fee-schedule-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloader.scheduleWithFixedDelay(this::reloadQuietly,
+                reloadInterval.toMillis(), reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public double feeFor(Payment payment) {
+        return schedule.feeFor(payment);
+    }
+
+    // Every fee comes from one schedule, even if a reload lands mid-batch
+    public double[] feesFor(List<Payment> payments) {
+        return schedule.feesFor(payments);
+    }
+
+    public FeeSchedule schedule() {
+        return schedule;
+    }
+
+    // Loads the schedule file if it changed since the last load and reports
+    // whether a new schedule was installed
+    public boolean reload() throws IOException {
+        if (scheduleFile == null) {
+            return false;
+        }
+        reloadLock.lock();
+        try {
+            FileTime version = Files.getLastModifiedTime(scheduleFile);
+            if (version.equals(loadedVersion)) {
+                return false;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(scheduleFile)) {
+                properties.load(reader);
+            }
+            Map<String, String> rules = new HashMap<>();
+            properties.stringPropertyNames().forEach(name -> rules.put(name, properties.getProperty(name)));
+            schedule = FeeSchedule.parse(rules);
+            // Only now: a file caught mid-write may be completed without its
+            // timestamp changing, so a failed version is read again next time
+            loadedVersion = version;
+            return true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            if (reload()) {
+                System.out.println("Fee schedule reloaded from " + scheduleFile);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Fee schedule not reloaded: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+}
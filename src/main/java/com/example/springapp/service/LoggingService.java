@@ -1,26 +1,37 @@
 package com.example.springapp.service;
 
 import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.audit.AuditEvent;
+import com.example.springapp.audit.AuditSink;
+import com.example.springapp.format.CompiledFormat;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class LoggingService {
+    private static final CompiledFormat CARD_SUMMARY = CompiledFormat.compile("Credit Card: %s ending %s");
+    private static final CompiledFormat PAYPAL_SUMMARY = CompiledFormat.compile("PayPal: %s");
+    private static final CompiledFormat TRANSFER_SUMMARY = CompiledFormat.compile("Bank Transfer: %s");
 
-    // Process payments but only log aggregate information
-    public void processPaymentBatch(List<Payment> payments) {
-        int processedCount = 0;
-        double totalAmount = 0;
-        
-        for (Payment payment : payments) {
-            // We process each payment but only care about aggregates
-            processedCount++;
-            totalAmount += payment.amount();
-        }
-        
-        System.out.println("Processed " + processedCount + " payments totaling $" + totalAmount);
+    private final PaymentBatchEngine batchEngine = new PaymentBatchEngine();
+    private final AuditSink auditSink;
+
+    public LoggingService(AuditSink auditSink) {
+        this.auditSink = auditSink;
+    }
+
+    // Process payments but only log aggregate information. Large batches are
+    // split across cores; the summary carries per-type aggregates and throughput.
+    public PaymentBatchSummary processPaymentBatch(List<Payment> payments) {
+        PaymentBatchSummary summary = batchEngine.process(payments);
+
+        System.out.printf("Processed %d payments totaling $%s in %.1f ms (%.0f payments/s)%n",
+            summary.count(), BigDecimal.valueOf(summary.totalCents(), 2),
+            summary.elapsedNanos() / 1e6, summary.paymentsPerSecond());
+        return summary;
     }
 
     // Exception handling where we don't need exception details
@@ -43,20 +54,21 @@ public class LoggingService {
         return input.trim().toUpperCase();
     }
 
-    // Pattern matching with focused field usage
+    // Pattern matching with focused field usage. Events go to the audit sink,
+    // which in the application queues them for a background writer.
     public void auditPayment(Payment payment) {
         switch (payment) {
             case Payment.CreditCard(String id, double amount, String status, 
                                   String lastFour, String cardType, boolean isInternational) -> {
                 // Audit log - we only care about certain fields
-                System.out.println("Credit card audit: " + cardType + " amount: " + amount);
+                audit("credit-card", id, amount, cardType);
             }
             
             case Payment.PayPal(String id, double amount, String status, 
                                String email, boolean isBusiness) -> {
                 // Business payments get different auditing
                 if (isBusiness) {
-                    System.out.println("Business PayPal payment: " + amount);
+                    audit("business-paypal", id, amount, null);
                 }
             }
             
@@ -64,12 +76,16 @@ public class LoggingService {
                                      String bank, String reference) -> {
                 // Large transfers get special attention
                 if (amount > 10000) {
-                    System.out.println("Large bank transfer: " + bank + " amount: " + amount);
+                    audit("large-bank-transfer", id, amount, bank);
                 }
             }
         }
     }
 
+    private void audit(String event, String paymentId, double amount, String detail) {
+        auditSink.record(new AuditEvent(System.currentTimeMillis(), event, paymentId, amount, detail));
+    }
+
     // Optional processing where we only care about presence
     public void handleOptionalData(Optional<String> data) {
         if (data.isPresent()) {
@@ -111,36 +127,40 @@ public class LoggingService {
         };
     }
 
-    // Handle payment without needing all details
+    // Handle payment without needing all details (formats compiled once)
     public String getPaymentSummary(Payment payment) {
         return switch (payment) {
             case Payment.CreditCard(var id, var amount, var status, 
                                   var lastFour, var cardType, var isInternational) -> 
-                String.format("Credit Card: %s ending %s", cardType, lastFour);
+                CARD_SUMMARY.start().add(cardType).add(lastFour).end().toString();
             
             case Payment.PayPal(var id, var amount, var status, 
                                var email, var isBusiness) -> 
-                String.format("PayPal: %s", isBusiness ? "Business" : "Personal");
+                PAYPAL_SUMMARY.start().add(isBusiness ? "Business" : "Personal").end().toString();
             
             case Payment.BankTransfer(var id, var amount, var status, 
                                      var bank, var reference) -> 
-                String.format("Bank Transfer: %s", bank);
+                TRANSFER_SUMMARY.start().add(bank).end().toString();
         };
     }
 
-    // Process with fallback - don't need exception details
+    // Total to the cent, skipping invalid payments: missing ones, amounts with no
+    // value in cents (NaN, infinite or beyond MoneySum's range) and any amount
+    // that would take the total out of that range. Checked up front rather than
+    // with a try/catch around every element, which keeps the loop tight for the JIT.
     public double calculateSafeTotal(List<Payment> payments) {
-        double total = 0;
-        
+        MoneySum total = new MoneySum();
+        int skipped = 0;
+
         for (Payment payment : payments) {
-            try {
-                total += payment.amount();
-            } catch (Exception e) {
-                // Don't need exception details, just skip invalid payments
-                System.out.println("Skipping invalid payment");
+            if (payment == null || !MoneySum.isRepresentable(payment.amount()) || !total.tryAdd(payment.amount())) {
+                skipped++;
             }
         }
-        
-        return total;
+        if (skipped > 0) {
+            System.out.println("Skipped " + skipped + " invalid payments");
+        }
+
+        return total.total();
     }
 }
\ No newline at end of file
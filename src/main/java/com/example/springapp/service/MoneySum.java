@@ -0,0 +1,74 @@
+package com.example.springapp.service;
+
+import java.math.BigDecimal;
+
+// Exact running total of money amounts, held as whole cents in a long.
+//
+// Each amount is rounded to the nearest cent once on the way in and the cents
+// are added as integers, so a total stays exact to the cent however many
+// amounts go in. A double running sum instead rounds on every addition and
+// drifts by whole cents over large batches. Adding is one multiply, one round,
+// a range check and one overflow-checked long add, with no allocation.
+//
+// NaN, infinite amounts and amounts beyond about 92 quadrillion dollars have no
+// value in cents and are rejected with IllegalArgumentException; a total that
+// would pass that limit throws ArithmeticException rather than wrap around.
+public final class MoneySum {
+    // 2^63 cents, the first value out of the range of a long
+    private static final double CENTS_LIMIT = 0x1p63;
+
+    private long cents;
+
+    public void add(double amount) {
+        cents = Math.addExact(cents, toCents(amount));
+    }
+
+    public void add(MoneySum other) {
+        cents = Math.addExact(cents, other.cents);
+    }
+
+    // Adds amount unless the total would leave the range of a long, and reports
+    // whether it did; the amount must be representable
+    public boolean tryAdd(double amount) {
+        long added = toCents(amount);
+        long sum = cents + added;
+        // Overflow iff both operands have the sign the sum lacks
+        if (((cents ^ sum) & (added ^ sum)) < 0) {
+            return false;
+        }
+        cents = sum;
+        return true;
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    // Nearest double to the total; exact for totals below 2^53 cents
+    public double total() {
+        return cents / 100.0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // Amounts are dollars with at most two decimals, so rounding recovers the
+    // intended cents from their nearest double (0.29 * 100 is 28.999...).
+    // Math.rint is a single instruction on x86 and ARM, unlike Math.round; the
+    // two only differ on half-cent ties, which such amounts never produce.
+    public static long toCents(double amount) {
+        if (!isRepresentable(amount)) {
+            throw new IllegalArgumentException("Not a money amount: " + amount);
+        }
+        return (long) Math.rint(amount * 100.0);
+    }
+
+    // Whether amount has a value in cents: finite, and within about 92
+    // quadrillion dollars of zero
+    public static boolean isRepresentable(double amount) {
+        double cents = Math.rint(amount * 100.0);
+        // NaN fails both comparisons; infinities and huge amounts fail one
+        return cents >= -CENTS_LIMIT && cents < CENTS_LIMIT;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.springapp.service;
+
+import java.util.List;
+
+// Outcome of a bulk create: one entry per submitted order, in submission order
+public record OrderBatchResult(int created, int rejected, List<ItemResult> items) {
+
+    // id is set for created orders, error for rejected ones
+    public record ItemResult(int index, Long id, String error) {
+
+        public static ItemResult created(int index, Long id) {
+            return new ItemResult(index, id, null);
+        }
+
+        public static ItemResult rejected(int index, String error) {
+            return new ItemResult(index, null, error);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.springapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor for order scans. Clients pass it back unchanged; the
+// encoding only hides the id so it can change without breaking callers.
+public final class OrderCursor {
+    private static final String PREFIX = "order:";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private OrderCursor() {}
+
+    public static String encode(long afterId) {
+        return ENCODER.encodeToString((PREFIX + afterId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decode(String cursor) {
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.US_ASCII);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid order cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid order cursor: " + cursor, e);
+        }
+    }
+}
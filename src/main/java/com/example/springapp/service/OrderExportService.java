@@ -0,0 +1,52 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Order;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+@Service
+public class OrderExportService {
+    // Push a chunk to the client every N orders; between flushes the generator's
+    // own buffer keeps memory constant
+    private static final int FLUSH_EVERY = 1_000;
+
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter orderWriter;
+
+    public OrderExportService(OrderService orderService, ObjectMapper objectMapper) {
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        // Flushing after every value would turn each order into its own HTTP chunk
+        this.orderWriter = objectMapper.writerFor(Order.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Writes every order as newline-delimited JSON and returns how many were written.
+    // Blocking writes on the response stream give natural backpressure to slow readers.
+    public long writeNdjson(OutputStream out) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Order> orders = orderService.streamOrders().iterator();
+            while (orders.hasNext()) {
+                orderWriter.writeValue(generator, orders.next());
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return written;
+    }
+}
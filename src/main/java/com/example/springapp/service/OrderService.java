@@ -1,21 +1,46 @@
 package com.example.springapp.service;
 
 import com.example.springapp.model.Order;
+import com.example.springapp.store.OrderIndexes;
+import com.example.springapp.store.OrderStore;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
-    // Use LinkedHashMap but we'll need to access sequenced methods differently
-    private final LinkedHashMap<Long, Order> orders = new LinkedHashMap<>();
-    private final AtomicLong idCounter = new AtomicLong(1);
+    // Allowed status moves. Orders in a status not listed here (or none) may be
+    // moved to any listed status; moving to an unlisted status is refused.
+    private static final Map<String, Set<String>> STATUS_TRANSITIONS = Map.of(
+        "PENDING", Set.of("PROCESSING", "CANCELLED"),
+        "PROCESSING", Set.of("COMPLETED", "CANCELLED"),
+        "COMPLETED", Set.of(),
+        "CANCELLED", Set.of());
 
-    public OrderService() {
+    // Thread-safe store; ids from idCounter define the order sequence
+    private final OrderStore orders;
+    // Status, customer and createdAt lookups; caught up with the store on read
+    private final OrderIndexes indexes = new OrderIndexes();
+    private final AtomicLong idCounter;
+    private final List<OrderStatusListener> statusListeners = new CopyOnWriteArrayList<>();
+
+    public OrderService(OrderStore orders) {
+        this.orders = orders;
+        // A persistent store may already hold orders recovered at startup
+        this.idCounter = new AtomicLong(orders.firstId() + orders.size());
+        if (!orders.isEmpty()) {
+            return;
+        }
         // Initialize with some sample data
         createOrder(new Order(null, "Alice", 100.0, LocalDateTime.now().minusDays(3), "COMPLETED"));
         createOrder(new Order(null, "Bob", 250.0, LocalDateTime.now().minusDays(2), "PENDING"));
@@ -25,49 +50,135 @@ public class OrderService {
 
     public Order createOrder(Order order) {
         Long id = idCounter.getAndIncrement();
-        order.setId(id);
-        orders.put(id, order);
+        try {
+            order.setId(id);
+            order.setVersion(0);
+            orders.put(order);
+        } catch (RuntimeException | Error e) {
+            // An id that is never filled would hold back every order after it
+            orders.abandon(id);
+            throw e;
+        }
         return order;
     }
 
-    public List<Order> getAllOrders() {
-        return List.copyOf(orders.values());
-    }
+    // Bulk create: validates every order, reserves ids for the valid ones with a
+    // single getAndAdd and hands them to the store in one pass
+    public OrderBatchResult createOrders(List<Order> batch) {
+        List<Order> accepted = new ArrayList<>(batch.size());
+        String[] errors = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            errors[i] = validate(batch.get(i));
+            if (errors[i] == null) {
+                accepted.add(batch.get(i));
+            }
+        }
 
-    public Order getOrderById(Long id) {
-        return orders.get(id);
+        long firstId = idCounter.getAndAdd(accepted.size());
+        try {
+            long nextId = firstId;
+            for (Order order : accepted) {
+                order.setId(nextId++);
+                order.setVersion(0);
+            }
+            orders.putAll(accepted);
+        } catch (RuntimeException | Error e) {
+            // Abandoning is a no-op for the ids the store did take
+            for (long id = firstId; id < firstId + accepted.size(); id++) {
+                orders.abandon(id);
+            }
+            throw e;
+        }
+
+        List<OrderBatchResult.ItemResult> items = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            items.add(errors[i] == null
+                ? OrderBatchResult.ItemResult.created(i, batch.get(i).getId())
+                : OrderBatchResult.ItemResult.rejected(i, errors[i]));
+        }
+        return new OrderBatchResult(accepted.size(), batch.size() - accepted.size(), items);
     }
 
-    // Helper method to get first entry using traditional approach
-    private Order getFirstOrder() {
-        if (orders.isEmpty()) {
-            return null;
+    // Returns the reason an order cannot be created, or null when it is valid
+    private String validate(Order order) {
+        if (order == null) {
+            return "Order is missing";
         }
-        return orders.entrySet().iterator().next().getValue();
+        if (order.getCustomerName() == null || order.getCustomerName().isBlank()) {
+            return "customerName is required";
+        }
+        if (order.getAmount() == null || order.getAmount() < 0 || order.getAmount().isNaN()) {
+            return "amount must be a non-negative number";
+        }
+        return null;
     }
 
-    // Helper method to get last entry using traditional approach
-    private Order getLastOrder() {
-        if (orders.isEmpty()) {
-            return null;
+    // Optimistic, lock-free status update. Stored orders are never modified in
+    // place: each update compare-and-sets a copy at the next version into the
+    // store and retries against the newer version if another update won. With
+    // expectedVersion set, losing that race is a conflict instead of a retry.
+    public OrderStatusUpdate updateStatus(Long id, String status, Long expectedVersion) {
+        if (status == null || !STATUS_TRANSITIONS.containsKey(status)) {
+            throw new IllegalArgumentException("status must be one of " + STATUS_TRANSITIONS.keySet());
         }
-        Order lastOrder = null;
-        for (Order order : orders.values()) {
-            lastOrder = order;
+        while (true) {
+            Order current = orders.get(id);
+            if (current == null) {
+                return OrderStatusUpdate.notFound();
+            }
+            if (expectedVersion != null && current.getVersion() != expectedVersion) {
+                return OrderStatusUpdate.conflict(current,
+                    "Order " + id + " is at version " + current.getVersion() + ", not " + expectedVersion);
+            }
+            Set<String> allowed = current.getStatus() != null ? STATUS_TRANSITIONS.get(current.getStatus()) : null;
+            if (allowed != null && !allowed.contains(status)) {
+                return OrderStatusUpdate.conflict(current,
+                    "Order " + id + " cannot move from " + current.getStatus() + " to " + status);
+            }
+
+            Order updated = new Order(current.getId(), current.getCustomerName(), current.getAmount(),
+                current.getCreatedAt(), status);
+            updated.setVersion(current.getVersion() + 1);
+            if (orders.replace(current, updated)) {
+                indexes.statusChanged(orders, current, updated);
+                for (OrderStatusListener listener : statusListeners) {
+                    listener.statusChanged(current, updated);
+                }
+                return OrderStatusUpdate.updated(updated);
+            }
         }
-        return lastOrder;
     }
 
-    // Using Sequenced Collections features for pagination metadata
+    public void addStatusListener(OrderStatusListener listener) {
+        statusListeners.add(listener);
+    }
+
+    public List<Order> getAllOrders() {
+        return orders.values();
+    }
+
+    // Lazily walks every order visible when the stream is created, in id order,
+    // without materializing a list
+    public Stream<Order> streamOrders() {
+        int count = orders.size();
+        return IntStream.range(0, count).mapToObj(orders::at).filter(Objects::nonNull);
+    }
+
+    public Order getOrderById(Long id) {
+        return orders.get(id);
+    }
+
+    // Serves a page straight from the store's positional index: O(page size),
+    // no copy of the full order list
     public Map<String, Object> getOrdersWithPagination(int page, int size) {
-        List<Order> allOrders = getAllOrders();
-        int totalItems = allOrders.size();
+        // Read the visible size once so the page and its metadata describe the same snapshot
+        int totalItems = orders.size();
         int totalPages = (int) Math.ceil((double) totalItems / size);
         
-        int start = Math.min((page - 1) * size, totalItems);
+        int start = (int) Math.min(Math.max(0L, (long) (page - 1) * size), totalItems);
         int end = Math.min(start + size, totalItems);
         
-        List<Order> pageData = allOrders.subList(start, end);
+        List<Order> pageData = orders.range(start, end - start);
         
         // Build response with pagination metadata
         Map<String, Object> response = new LinkedHashMap<>();
@@ -77,15 +188,15 @@ public class OrderService {
         response.put("totalItems", totalItems);
         response.put("totalPages", totalPages);
         
-        // Use helper methods for first/last item metadata
-        Order firstOrder = getFirstOrder();
-        Order lastOrder = getLastOrder();
-        
-        if (firstOrder != null) {
-            response.put("firstItemId", firstOrder.getId());
+        // Abandoned ids hold no order, so step back to the newest real one
+        Order firstItem = orders.first();
+        Order lastItem = null;
+        for (int position = totalItems - 1; lastItem == null && position >= 0; position--) {
+            lastItem = orders.at(position);
         }
-        if (lastOrder != null) {
-            response.put("lastItemId", lastOrder.getId());
+        if (firstItem != null && lastItem != null) {
+            response.put("firstItemId", firstItem.getId());
+            response.put("lastItemId", lastItem.getId());
         }
         
         response.put("hasPrevious", page > 1);
@@ -93,4 +204,54 @@ public class OrderService {
         
         return response;
     }
-}
\ No newline at end of file
+
+    // Keyset pagination: O(limit) regardless of scan depth, and stable under
+    // concurrent inserts because new orders always sort after existing ones
+    public Map<String, Object> getOrdersAfter(String cursor, int limit) {
+        long afterId = cursor != null ? OrderCursor.decode(cursor) : 0L;
+        List<Order> pageData = orders.rangeAfter(afterId, limit);
+
+        Order newest = orders.last();
+        return keysetPage(pageData, afterId, limit,
+            newest != null && newest.getId() > lastIdOf(pageData, afterId));
+    }
+
+    // Keyset page of orders with the given status, in id order
+    public Map<String, Object> getOrdersByStatus(String status, String cursor, int limit) {
+        long afterId = cursor != null ? OrderCursor.decode(cursor) : 0L;
+        indexes.catchUp(orders);
+        List<Order> pageData = indexes.findByStatus(orders, status, afterId, limit);
+        return keysetPage(pageData, afterId, limit, pageData.size() == limit);
+    }
+
+    // Keyset page of a customer's orders, in id order
+    public Map<String, Object> getOrdersByCustomer(String customerName, String cursor, int limit) {
+        long afterId = cursor != null ? OrderCursor.decode(cursor) : 0L;
+        indexes.catchUp(orders);
+        List<Order> pageData = indexes.findByCustomer(orders, customerName, afterId, limit);
+        return keysetPage(pageData, afterId, limit, pageData.size() == limit);
+    }
+
+    // Up to limit orders created in [from, to), oldest first
+    public List<Order> getOrdersCreatedBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        indexes.catchUp(orders);
+        return indexes.findByCreatedAt(orders, from, to, limit);
+    }
+
+    private Map<String, Object> keysetPage(List<Order> pageData, long afterId, int limit, boolean hasMore) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("data", pageData);
+        response.put("limit", limit);
+        // Always returned so export jobs can resume once more orders arrive
+        response.put("nextCursor", OrderCursor.encode(lastIdOf(pageData, afterId)));
+        response.put("hasMore", hasMore);
+        return response;
+    }
+
+    private static long lastIdOf(List<Order> pageData, long afterId) {
+        return pageData.isEmpty() ? afterId : pageData.get(pageData.size() - 1).getId();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Order;
+
+// Notified after a status update has been stored, on the updating thread
+@FunctionalInterface
+public interface OrderStatusListener {
+
+    void statusChanged(Order previous, Order updated);
+}
@@ -0,0 +1,22 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Order;
+
+// Outcome of a status update. order is the updated order, or the current one
+// when the update was refused; error says why it was refused.
+public record OrderStatusUpdate(Outcome outcome, Order order, String error) {
+
+    public enum Outcome { UPDATED, NOT_FOUND, CONFLICT }
+
+    public static OrderStatusUpdate updated(Order order) {
+        return new OrderStatusUpdate(Outcome.UPDATED, order, null);
+    }
+
+    public static OrderStatusUpdate notFound() {
+        return new OrderStatusUpdate(Outcome.NOT_FOUND, null, "Order not found");
+    }
+
+    public static OrderStatusUpdate conflict(Order current, String error) {
+        return new OrderStatusUpdate(Outcome.CONFLICT, current, error);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Splits a payment batch across a fork-join pool and aggregates it per payment
+// type. Every leaf task fills its own accumulator with no shared writes, and
+// accumulators are merged pairwise as the tasks join. A payment whose amount is
+// NaN or infinite fails the batch with IllegalArgumentException.
+public class PaymentBatchEngine {
+    private static final String[] TYPES = {"CreditCard", "PayPal", "BankTransfer"};
+    // Smallest slice worth its own task
+    private static final int MIN_SLICE = 16_384;
+
+    private final ForkJoinPool pool;
+
+    public PaymentBatchEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public PaymentBatchEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public PaymentBatchSummary process(List<Payment> payments) {
+        long start = System.nanoTime();
+        Accumulator totals;
+        if (payments.size() <= MIN_SLICE || !(payments instanceof RandomAccess)) {
+            totals = new Accumulator();
+            for (Payment payment : payments) {
+                totals.add(payment);
+            }
+        } else {
+            // A few slices per worker, so a slow one does not hold up the batch
+            int slice = Math.max(MIN_SLICE, payments.size() / (pool.getParallelism() * 4));
+            totals = pool.invoke(new SliceTask(payments, 0, payments.size(), slice));
+        }
+        return totals.toSummary(System.nanoTime() - start);
+    }
+
+    private static final class SliceTask extends RecursiveTask<Accumulator> {
+        private final List<Payment> payments;
+        private final int from;
+        private final int to;
+        private final int slice;
+
+        SliceTask(List<Payment> payments, int from, int to, int slice) {
+            this.payments = payments;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= slice) {
+                Accumulator accumulator = new Accumulator();
+                for (int i = from; i < to; i++) {
+                    accumulator.add(payments.get(i));
+                }
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            SliceTask left = new SliceTask(payments, from, middle, slice);
+            left.fork();
+            Accumulator right = new SliceTask(payments, middle, to, slice).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    private static final class Accumulator {
+        private final long[] counts = new long[TYPES.length];
+        // Whole cents (see MoneySum), so merging in any order gives the same total
+        private final long[] cents = new long[TYPES.length];
+        private final double[] mins = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        private final double[] maxs = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+        void add(Payment payment) {
+            int type = switch (payment) {
+                case Payment.CreditCard card -> 0;
+                case Payment.PayPal payPal -> 1;
+                case Payment.BankTransfer transfer -> 2;
+            };
+            double amount = payment.amount();
+            if (!Double.isFinite(amount)) {
+                throw new IllegalArgumentException("Payment " + payment.id() + " has no valid amount: " + amount);
+            }
+            counts[type]++;
+            cents[type] = Math.addExact(cents[type], MoneySum.toCents(amount));
+            mins[type] = Math.min(mins[type], amount);
+            maxs[type] = Math.max(maxs[type], amount);
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int type = 0; type < TYPES.length; type++) {
+                counts[type] += other.counts[type];
+                cents[type] = Math.addExact(cents[type], other.cents[type]);
+                mins[type] = Math.min(mins[type], other.mins[type]);
+                maxs[type] = Math.max(maxs[type], other.maxs[type]);
+            }
+            return this;
+        }
+
+        PaymentBatchSummary toSummary(long elapsedNanos) {
+            long count = 0;
+            long total = 0;
+            List<PaymentBatchSummary.TypeSummary> byType = new ArrayList<>(TYPES.length);
+            for (int type = 0; type < TYPES.length; type++) {
+                if (counts[type] > 0) {
+                    count += counts[type];
+                    total = Math.addExact(total, cents[type]);
+                    byType.add(new PaymentBatchSummary.TypeSummary(
+                        TYPES[type], counts[type], cents[type], mins[type], maxs[type]));
+                }
+            }
+            return new PaymentBatchSummary(count, total, byType, elapsedNanos);
+        }
+    }
+}
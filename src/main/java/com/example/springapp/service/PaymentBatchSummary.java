@@ -0,0 +1,23 @@
+package com.example.springapp.service;
+
+import java.util.List;
+
+// Aggregates of one payment batch, with per-type figures for the types present
+// and how long the batch took. Sums are exact, in whole cents.
+public record PaymentBatchSummary(long count, long totalCents, List<TypeSummary> byType, long elapsedNanos) {
+
+    public double total() {
+        return totalCents / 100.0;
+    }
+
+    public double paymentsPerSecond() {
+        return elapsedNanos > 0 ? count * 1e9 / elapsedNanos : 0.0;
+    }
+
+    public record TypeSummary(String type, long count, long sumCents, double min, double max) {
+
+        public double sum() {
+            return sumCents / 100.0;
+        }
+    }
+}
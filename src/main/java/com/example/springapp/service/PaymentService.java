@@ -1,42 +1,68 @@
 package com.example.springapp.service;
 
 import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.format.CompiledFormat;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.BitSet;
+import java.util.List;
+
 @Service
 public class PaymentService {
+    private static final CompiledFormat PROCESSED_CARD = CompiledFormat.compile("Processed CC %s: $%.2f via %s");
+    private static final CompiledFormat PROCESSED_PAYPAL = CompiledFormat.compile("Processed PayPal %s: $%.2f from %s");
+    private static final CompiledFormat PROCESSING_TRANSFER = CompiledFormat.compile("Processing bank transfer %s: $%.2f");
+
+    private final ReviewScreener reviewScreener;
+
+    public PaymentService(@Value("${payments.review.parallel-threshold:65536}") int parallelThreshold) {
+        this.reviewScreener = new ReviewScreener(parallelThreshold);
+    }
 
-    // Process payment based on type - clean pattern matching
+    // Process payment based on type - clean pattern matching. Messages use
+    // formats compiled once, so the amount is not boxed and no Formatter is built.
     public String processPayment(Payment payment) {
         return switch (payment) {
             case Payment.CreditCard(var id, var amount, var status, 
                                   var lastFour, var cardType, var isInternational) -> 
-                String.format("Processed CC %s: $%.2f via %s", id, amount, cardType);
+                PROCESSED_CARD.start().add(id).add(amount).add(cardType).end().toString();
             
             case Payment.PayPal(var id, var amount, var status, 
                               var email, var isBusiness) -> 
-                String.format("Processed PayPal %s: $%.2f from %s", id, amount, email);
+                PROCESSED_PAYPAL.start().add(id).add(amount).add(email).end().toString();
             
             case Payment.BankTransfer(var id, var amount, var status, 
                                     var bank, var reference) -> 
-                String.format("Processing bank transfer %s: $%.2f", id, amount);
+                PROCESSING_TRANSFER.start().add(id).add(amount).end().toString();
         };
     }
 
     // Check if payment needs manual review
     public boolean needsReview(Payment payment) {
         return switch (payment) {
-            case Payment.CreditCard(var id, var amount, var status, 
-                                  var lastFour, var cardType, var isInternational) -> 
-                isInternational || amount > 1000.0;
-            
-            case Payment.PayPal(var id, var amount, var status, 
-                              var email, var isBusiness) -> 
-                !isBusiness && amount > 1500.0;
-            
-            case Payment.BankTransfer(var id, var amount, var status, 
-                                    var bank, var reference) -> 
-                amount > 3000.0;
+            case Payment.CreditCard card -> needsReview(card);
+            case Payment.PayPal payPal -> needsReview(payPal);
+            case Payment.BankTransfer transfer -> needsReview(transfer);
         };
     }
+
+    // needsReview over a whole batch: bit i is set when payments.get(i) needs review
+    public BitSet screenForReview(List<Payment> payments) {
+        return reviewScreener.screen(payments);
+    }
+
+    // Per-type review rules, shared with the bulk screening loops
+
+    static boolean needsReview(Payment.CreditCard card) {
+        return card.isInternational() || card.amount() > 1000.0;
+    }
+
+    static boolean needsReview(Payment.PayPal payPal) {
+        return !payPal.isBusiness() && payPal.amount() > 1500.0;
+    }
+
+    static boolean needsReview(Payment.BankTransfer transfer) {
+        return transfer.amount() > 3000.0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.springapp.service;
+
+import java.util.Base64;
+import java.util.BitSet;
+
+// Outcome of bulk review screening. flags is the Base64 of a little-endian
+// bitset: payment i needs review when bit (i % 8) of byte (i / 8) is set.
+// Trailing zero bytes are omitted.
+public record ReviewScreeningResult(int screened, int flagged, String flags) {
+
+    public static ReviewScreeningResult of(int screened, BitSet flags) {
+        return new ReviewScreeningResult(screened, flags.cardinality(),
+            Base64.getEncoder().encodeToString(flags.toByteArray()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.springapp.service;
 
+import com.example.springapp.config.ServiceExecutor;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -8,9 +9,15 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @Service
 public class ScriptingService {
+    private final ServiceExecutor serviceExecutor;
+
+    public ScriptingService(ServiceExecutor serviceExecutor) {
+        this.serviceExecutor = serviceExecutor;
+    }
 
     // Method that demonstrates scripting-style operations
     public String executeQuickScript(String scriptType, Map<String, Object> parameters) {
@@ -38,6 +45,16 @@ public class ScriptingService {
         }
     }
 
+    // File reports for several files at once, in the given order. Each report's
+    // blocking file-system calls run as their own service task, so slow storage
+    // overlaps instead of adding up.
+    public List<String> generateFileReports(List<String> filenames) {
+        List<Callable<String>> reports = filenames.stream()
+            .<Callable<String>>map(filename -> () -> generateFileReport(Map.of("filename", filename)))
+            .toList();
+        return serviceExecutor.invokeAll(reports);
+    }
+
     private String generateFileReport(Map<String, Object> params) {
         try {
             var filename = (String) params.get("filename");
@@ -1,19 +1,18 @@
 package com.example.springapp.service;
 
+import com.example.java21features.stringtemplates.templateprocessors.CompiledTemplate;
 import com.example.java21features.stringtemplates.templateprocessors.JsonTemplateProcessor;
 import com.example.java21features.stringtemplates.templateprocessors.SqlTemplateProcessor;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 
 @Service
 public class TemplateService {
 
-    public String generateUserWelcomeEmail(String username, String fullName) {
-        // Simulating string template for email content
-        return interpolate("""
+    // Simulating string template for email content
+    private static final CompiledTemplate WELCOME_EMAIL = CompiledTemplate.compile("""
             Dear {0},
             
             Welcome to our service! Your username is: {1}
@@ -22,7 +21,16 @@ public class TemplateService {
             
             Best regards,
             The Team
-            """, fullName, username);
+            """);
+
+    // One precompiled statement per combination of search filters, in the
+    // order of createUserSearchQuery's arguments
+    private static final SqlTemplateProcessor.StatementShapes USER_SEARCH = SqlTemplateProcessor.shapes(
+            "SELECT * FROM users WHERE 1=1",
+            " AND username = ?", " AND email = ?", " AND age >= ?", " AND active = ?");
+
+    public String generateUserWelcomeEmail(String username, String fullName) {
+        return WELCOME_EMAIL.render(fullName, username);
     }
 
     public String generateApiResponse(String status, String message, Object data) {
@@ -38,36 +46,16 @@ public class TemplateService {
     public SqlTemplateProcessor.SqlTemplate createUserSearchQuery(
             String username, String email, Integer minAge, Boolean active) {
         
-        StringBuilder query = new StringBuilder("SELECT * FROM users WHERE 1=1");
-        List<Object> params = new ArrayList<>();
-        
-        if (username != null) {
-            query.append(" AND username = ?");
-            params.add(username);
-        }
-        if (email != null) {
-            query.append(" AND email = ?");
-            params.add(email);
-        }
-        if (minAge != null) {
-            query.append(" AND age >= ?");
-            params.add(minAge);
-        }
-        if (active != null) {
-            query.append(" AND active = ?");
-            params.add(active);
-        }
-        
-        return SqlTemplateProcessor.of(query.toString(), params.toArray());
-    }
-
-    private String interpolate(String template, Object... values) {
-        String result = template;
-        for (int i = 0; i < values.length; i++) {
-            String placeholder = "\\{" + i + "\\}";
-            result = result.replaceAll(placeholder, 
-                values[i] != null ? values[i].toString() : "null");
+        Object[] filters = {username, email, minAge, active};
+        Object[] params = new Object[filters.length];
+        int mask = 0;
+        int count = 0;
+        for (int i = 0; i < filters.length; i++) {
+            if (filters[i] != null) {
+                mask |= 1 << i;
+                params[count++] = filters[i];
+            }
         }
-        return result;
+        return USER_SEARCH.bind(mask, Arrays.copyOf(params, count));
     }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Lock-free, insertion-ordered order store.
+//
+// Orders live in an append-only sequence of fixed-size chunks where the slot of
+// an order is derived from its id (id - firstId). Writers fill their own slot and
+// then help advance the published watermark over every contiguous filled slot,
+// so readers always observe a gap-free prefix of the sequence: if an order is
+// visible in values()/size(), every order created before it is visible too.
+// A reserved id whose create failed is abandoned: its slot is filled with a
+// tombstone that publish() steps over and readers never see.
+public class ConcurrentOrderStore implements OrderStore {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MAX_CHUNKS = 1 << 16;
+    // Fills the slot of an abandoned id
+    private static final Order ABANDONED = new Order();
+
+    private final long firstId;
+    private final AtomicReferenceArray<AtomicReferenceArray<Order>> chunks =
+        new AtomicReferenceArray<>(MAX_CHUNKS);
+    // Length of the contiguous, fully written prefix of the sequence
+    private final AtomicInteger published = new AtomicInteger();
+
+    public ConcurrentOrderStore() {
+        this(1);
+    }
+
+    public ConcurrentOrderStore(long firstId) {
+        this.firstId = firstId;
+    }
+
+    @Override
+    public void put(Order order) {
+        store(order);
+        publish();
+    }
+
+    // Fills every slot first and publishes once, instead of walking the
+    // watermark after each order
+    @Override
+    public void putAll(List<Order> batch) {
+        try {
+            for (Order order : batch) {
+                store(order);
+            }
+        } finally {
+            publish();
+        }
+    }
+
+    @Override
+    public void abandon(long id) {
+        int slot = slotOf(id);
+        if (slot < 0 || (slot >>> CHUNK_BITS) >= MAX_CHUNKS) {
+            return;
+        }
+        // Losing the race means the order was stored after all
+        chunk(slot, true).compareAndSet(slot & CHUNK_MASK, null, ABANDONED);
+        publish();
+    }
+
+    private void store(Order order) {
+        Long id = order.getId();
+        if (id == null) {
+            throw new IllegalArgumentException("Order must have an id before it is stored");
+        }
+        int slot = slotOf(id);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Order id out of range: " + id);
+        }
+        if (!chunk(slot, true).compareAndSet(slot & CHUNK_MASK, null, order)) {
+            throw new IllegalStateException("Order id already stored: " + id);
+        }
+    }
+
+    @Override
+    public Order get(Long id) {
+        if (id == null) {
+            return null;
+        }
+        int slot = slotOf(id);
+        return slot < 0 ? null : visible(read(slot));
+    }
+
+    // Compare-and-set on the order's slot, so concurrent updates to one order
+    // serialize without any lock and updates to different orders never contend
+    @Override
+    public boolean replace(Order current, Order updated) {
+        if (!current.getId().equals(updated.getId())) {
+            throw new IllegalArgumentException("Replacement must keep the order id: " + current.getId());
+        }
+        int slot = slotOf(current.getId());
+        AtomicReferenceArray<Order> chunk = slot < 0 ? null : chunk(slot, false);
+        return chunk != null && chunk.compareAndSet(slot & CHUNK_MASK, current, updated);
+    }
+
+    @Override
+    public long firstId() {
+        return firstId;
+    }
+
+    @Override
+    public int size() {
+        return published.get();
+    }
+
+    @Override
+    public Order at(int position) {
+        return position < 0 || position >= size() ? null : visible(read(position));
+    }
+
+    @Override
+    public List<Order> range(int offset, int limit) {
+        int size = size();
+        int from = Math.max(0, Math.min(offset, size));
+        int to = (int) Math.min((long) from + Math.max(0, limit), size);
+        List<Order> result = new ArrayList<>(to - from);
+        for (int slot = from; slot < to; slot++) {
+            Order order = read(slot);
+            if (order != ABANDONED) {
+                result.add(order);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public List<Order> rangeAfter(long afterId, int limit) {
+        // Ids map straight onto slots, so seeking the cursor is O(1); abandoned
+        // ids are stepped over so a page still holds limit orders when it can
+        long offset = Math.max(0L, afterId - firstId + 1);
+        int size = size();
+        List<Order> result = new ArrayList<>((int) Math.max(0L, Math.min(limit, size - offset)));
+        for (long slot = offset; slot < size && result.size() < limit; slot++) {
+            Order order = read((int) slot);
+            if (order != ABANDONED) {
+                result.add(order);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public Order first() {
+        int size = size();
+        for (int slot = 0; slot < size; slot++) {
+            Order order = read(slot);
+            if (order != ABANDONED) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Order last() {
+        for (int slot = size() - 1; slot >= 0; slot--) {
+            Order order = read(slot);
+            if (order != ABANDONED) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Order> values() {
+        return range(0, size());
+    }
+
+    // Advance the watermark over every filled slot following it. Each writer calls
+    // this after filling its own slot, so the last writer of a run always finishes it.
+    private void publish() {
+        int current = published.get();
+        while (true) {
+            AtomicReferenceArray<Order> chunk = chunk(current, false);
+            if (chunk == null || chunk.get(current & CHUNK_MASK) == null) {
+                return;
+            }
+            if (published.compareAndSet(current, current + 1)) {
+                current++;
+            } else {
+                current = published.get();
+            }
+        }
+    }
+
+    private static Order visible(Order order) {
+        return order == ABANDONED ? null : order;
+    }
+
+    private Order read(int slot) {
+        AtomicReferenceArray<Order> chunk = chunk(slot, false);
+        return chunk == null ? null : chunk.get(slot & CHUNK_MASK);
+    }
+
+    private AtomicReferenceArray<Order> chunk(int slot, boolean create) {
+        int chunkIndex = slot >>> CHUNK_BITS;
+        if (chunkIndex >= MAX_CHUNKS) {
+            if (create) {
+                throw new IllegalStateException("Order store capacity exceeded");
+            }
+            return null;
+        }
+        AtomicReferenceArray<Order> chunk = chunks.get(chunkIndex);
+        if (chunk == null && create) {
+            chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(chunkIndex);
+        }
+        return chunk;
+    }
+
+    // Slot for an id, or -1 when the id can never be stored here
+    private int slotOf(long id) {
+        long slot = id - firstId;
+        return slot < 0 || slot >= (long) MAX_CHUNKS * CHUNK_SIZE ? -1 : (int) slot;
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// OrderStore that logs every create to an OrderWriteAheadLog before acknowledging
+// it and rebuilds the in-memory store from the log on startup.
+//
+// An order becomes visible only once its create is on disk. If the log fails,
+// the caller gets the error and abandons the id, and the log refuses all
+// further appends until restart. Recovery replays every checksummed create,
+// whatever order concurrent writers logged them in, and abandons the ids in
+// between that never reached the log, so no logged order is dropped and no
+// logged id is handed out again.
+//
+// Status updates take the same path: the new version is logged and synced,
+// then swapped into memory, under a lock striped by order id so no other update
+// of the order slips in between. snapshot() holds every stripe while it rolls
+// the log, so an update logged before the roll is already visible to the
+// snapshot and compacting those segments never loses it.
+//
+// Snapshots bound startup time: snapshot() writes a columnar OrderSnapshot of
+// the store and drops the log segments it covers, so a restart maps the latest
+// snapshot and replays only the log tail written after it.
+public class DurableOrderStore implements OrderStore, Closeable {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int UPDATE_STRIPES = 64;
+
+    private final Path directory;
+    private final OrderStore delegate;
+    private final OrderWriteAheadLog log;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final ReentrantLock[] updateLocks = new ReentrantLock[UPDATE_STRIPES];
+    private ScheduledExecutorService snapshotScheduler;
+
+    private DurableOrderStore(Path directory, OrderStore delegate, OrderWriteAheadLog log) {
+        this.directory = directory;
+        this.delegate = delegate;
+        this.log = log;
+        for (int i = 0; i < updateLocks.length; i++) {
+            updateLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public static DurableOrderStore open(Path directory, int segmentSize) throws IOException {
+        Files.createDirectories(directory);
+        ConcurrentOrderStore memory = new ConcurrentOrderStore();
+        Path snapshot = latestSnapshot(directory);
+        long snapshotId = snapshot != null ? OrderSnapshot.load(snapshot, memory) : 0L;
+
+        Replay replay = new Replay(memory, snapshotId + 1);
+        OrderWriteAheadLog log = OrderWriteAheadLog.open(directory, segmentSize, replay::accept, replay::update);
+        int missing = replay.finish();
+        if (missing > 0) {
+            System.out.println("Order log: " + missing + " order ids below " + replay.nextId
+                + " never reached the log and were abandoned");
+        }
+        return new DurableOrderStore(directory, memory, log);
+    }
+
+    // Writes a snapshot of every visible order, then deletes older snapshots and
+    // the log segments it covers. Returns the last order id it contains.
+    public long snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            // Close the active segment first so everything logged so far is
+            // compactable, with no update caught between its log record and its swap
+            for (ReentrantLock lock : updateLocks) {
+                lock.lock();
+            }
+            try {
+                log.roll();
+            } finally {
+                for (ReentrantLock lock : updateLocks) {
+                    lock.unlock();
+                }
+            }
+            int count = delegate.size();
+            if (count == 0) {
+                return 0L;
+            }
+            long lastId = delegate.firstId() + count - 1;
+            Path file = snapshotPath(directory, lastId);
+            if (!Files.exists(file)) {
+                OrderSnapshot.write(file, delegate, count);
+            }
+            for (Path older : snapshots(directory)) {
+                if (!older.equals(file)) {
+                    Files.deleteIfExists(older);
+                }
+            }
+            log.compact(lastId);
+            return lastId;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // Takes a snapshot every interval on a background thread until close()
+    public void scheduleSnapshots(Duration interval) {
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                System.out.println("Order snapshot failed: " + e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void put(Order order) {
+        long sequence;
+        try {
+            sequence = log.append(order);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to log order " + order.getId(), e);
+        }
+        sync(sequence);
+        delegate.put(order);
+    }
+
+    // One group commit for the whole batch; nothing is published unless all of it is durable
+    @Override
+    public void putAll(List<Order> batch) {
+        long sequence = 0;
+        try {
+            for (Order order : batch) {
+                sequence = log.append(order);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to log order batch", e);
+        }
+        sync(sequence);
+        delegate.putAll(batch);
+    }
+
+    // Nothing changes in memory unless the update is durable, so a failure leaves
+    // the store, indexes and listeners all at the previous version
+    @Override
+    public boolean replace(Order current, Order updated) {
+        if (!current.getId().equals(updated.getId())) {
+            throw new IllegalArgumentException("Replacement must keep the order id: " + current.getId());
+        }
+        ReentrantLock lock = updateLocks[(int) (current.getId() & (UPDATE_STRIPES - 1))];
+        lock.lock();
+        try {
+            if (delegate.get(current.getId()) != current) {
+                return false;
+            }
+            long sequence;
+            try {
+                sequence = log.appendUpdate(updated);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to log update of order " + updated.getId(), e);
+            }
+            sync(sequence);
+            // Every update of this order holds the stripe, so current is still stored
+            return delegate.replace(current, updated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sync(long sequence) {
+        try {
+            log.sync(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync order log", e);
+        }
+    }
+
+    @Override
+    public void abandon(long id) {
+        delegate.abandon(id);
+    }
+
+    @Override
+    public Order get(Long id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public long firstId() {
+        return delegate.firstId();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Order at(int position) {
+        return delegate.at(position);
+    }
+
+    @Override
+    public List<Order> range(int offset, int limit) {
+        return delegate.range(offset, limit);
+    }
+
+    @Override
+    public List<Order> rangeAfter(long afterId, int limit) {
+        return delegate.rangeAfter(afterId, limit);
+    }
+
+    @Override
+    public Order first() {
+        return delegate.first();
+    }
+
+    @Override
+    public Order last() {
+        return delegate.last();
+    }
+
+    @Override
+    public List<Order> values() {
+        return delegate.values();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        // Let a snapshot in progress finish before the log goes away
+        snapshotLock.lock();
+        try {
+            log.close();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    static Path snapshotPath(Path directory, long lastId) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lastId, SNAPSHOT_SUFFIX));
+    }
+
+    private static Path latestSnapshot(Path directory) throws IOException {
+        List<Path> snapshots = snapshots(directory);
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    // Completed snapshots, oldest first
+    private static List<Path> snapshots(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    // Concurrent writers can reach the log slightly out of id order, so replayed
+    // creates wait in pending until every lower id has been applied. Ids that
+    // never reached the log are abandoned by finish().
+    private static final class Replay {
+        private final OrderStore store;
+        private final TreeMap<Long, Order> pending = new TreeMap<>();
+        private long nextId;
+
+        Replay(OrderStore store, long nextId) {
+            this.store = store;
+            this.nextId = nextId;
+        }
+
+        void accept(Order order) {
+            long id = order.getId();
+            if (id < nextId) {
+                // Already covered by the snapshot
+                return;
+            }
+            if (id > nextId) {
+                pending.put(id, order);
+                return;
+            }
+            store.put(order);
+            nextId++;
+            drain();
+        }
+
+        // Updates of one order reach the log in version order, but a segment
+        // that compaction kept for a later create can repeat updates the snapshot
+        // already holds, so an update only applies over a lower version
+        void update(Order order) {
+            long id = order.getId();
+            Order stored = store.get(id);
+            if (stored != null) {
+                if (order.getVersion() > stored.getVersion()) {
+                    store.replace(stored, order);
+                }
+                return;
+            }
+            // The create may still be waiting for a lower id
+            if (pending.containsKey(id)) {
+                pending.put(id, order);
+            }
+        }
+
+        // Applies the creates still waiting once the whole log is read, abandoning
+        // each missing id below them. Returns the number of ids abandoned.
+        int finish() {
+            int missing = 0;
+            while (!pending.isEmpty()) {
+                for (long id = pending.firstKey(); nextId < id; nextId++) {
+                    store.abandon(nextId);
+                    missing++;
+                }
+                drain();
+            }
+            return missing;
+        }
+
+        private void drain() {
+            while (!pending.isEmpty() && pending.firstKey() == nextId) {
+                store.put(pending.pollFirstEntry().getValue());
+                nextId++;
+            }
+        }
+    }
+}
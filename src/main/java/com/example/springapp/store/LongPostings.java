@@ -0,0 +1,38 @@
+package com.example.springapp.store;
+
+import java.util.Arrays;
+
+// Append-only list of order ids for one index key, kept in ascending order.
+// One thread appends at a time; readers can scan concurrently because a grown
+// array is published before the size that makes new entries visible.
+final class LongPostings {
+    private volatile long[] ids = new long[4];
+    private volatile int size;
+
+    // Caller must hold the owning index's append lock and append in id order
+    void append(long id) {
+        long[] current = ids;
+        int count = size;
+        if (count == current.length) {
+            current = Arrays.copyOf(current, count * 2);
+            ids = current;
+        }
+        current[count] = id;
+        size = count + 1;
+    }
+
+    // Reads the size first, so the array seen is at least as new as it
+    Snapshot snapshot() {
+        int count = size;
+        return new Snapshot(ids, count);
+    }
+
+    record Snapshot(long[] ids, int size) {
+
+        // Position of the first id greater than afterId
+        int positionAfter(long afterId) {
+            int position = Arrays.binarySearch(ids, 0, size, afterId);
+            return position >= 0 ? position + 1 : -(position + 1);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Secondary indexes over an OrderStore: a bitmap per status, a hash index on
+// customer name and a navigable index on createdAt.
+//
+// Like OrderColumns, the indexes follow the store's published prefix:
+// catchUp() indexes every order published since the last call, one appender at
+// a time, so postings are appended in id order and stay sorted without any
+// per-create locking. The time index is bucketed by minute to keep one skip
+// list node per busy minute rather than one per order.
+//
+// Status is the one field that changes after creation. Status bitmaps are
+// indexed by position and moved with lock-free bit operations by
+// statusChanged(), and lookups check each candidate's current status, so a
+// bit left behind by racing updates never shows up in a result.
+public class OrderIndexes {
+    private static final long BUCKET_SECONDS = 60;
+
+    private final Map<String, PositionBitmap> byStatus = new ConcurrentHashMap<>();
+    private final Map<String, LongPostings> byCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, LongPostings> byMinute = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile int indexed;
+
+    // Indexes every order the store has published since the last call
+    public void catchUp(OrderStore store) {
+        if (indexed == store.size()) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            int to = store.size();
+            for (int position = indexed; position < to; position++) {
+                Order order = store.at(position);
+                if (order == null) {
+                    // Abandoned id
+                    continue;
+                }
+                long id = order.getId();
+                if (order.getStatus() != null) {
+                    statusBitmap(order.getStatus()).set(position);
+                }
+                if (order.getCustomerName() != null) {
+                    byCustomer.computeIfAbsent(order.getCustomerName(), key -> new LongPostings()).append(id);
+                }
+                if (order.getCreatedAt() != null) {
+                    byMinute.computeIfAbsent(bucketOf(order.getCreatedAt()), key -> new LongPostings()).append(id);
+                }
+            }
+            indexed = to;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Moves an updated order between status bitmaps; called after the update has
+    // been stored, concurrently with lookups, catchUp() and other updates. The new
+    // bit is set before the old one is cleared, and a clear that raced with a
+    // move back to the old status is undone, so the current status bit is set.
+    public void statusChanged(OrderStore store, Order previous, Order updated) {
+        int position = store.positionOf(updated.getId());
+        if (position < 0) {
+            // Not published yet, so catchUp() will see the new status
+            return;
+        }
+        String status = updated.getStatus();
+        if (status != null) {
+            statusBitmap(status).set(position);
+        }
+        String previousStatus = previous.getStatus();
+        PositionBitmap previousBitmap = previousStatus != null ? byStatus.get(previousStatus) : null;
+        if (previousBitmap != null && !previousStatus.equals(status)) {
+            previousBitmap.clear(position);
+            if (previousStatus.equals(store.get(updated.getId()).getStatus())) {
+                previousBitmap.set(position);
+            }
+        }
+    }
+
+    // Up to limit orders with the status and an id greater than afterId, in id order
+    public List<Order> findByStatus(OrderStore store, String status, long afterId, int limit) {
+        PositionBitmap bitmap = byStatus.get(status);
+        if (bitmap == null) {
+            return List.of();
+        }
+        int size = store.size();
+        int from = (int) Math.min(Math.max(0L, afterId - store.firstId() + 1), size);
+        List<Order> result = new ArrayList<>(Math.min(limit, 1024));
+        for (int position = bitmap.nextSetBit(from, size);
+                position >= 0 && result.size() < limit;
+                position = bitmap.nextSetBit(position + 1, size)) {
+            Order order = store.at(position);
+            // A bit can outlive a concurrent update; the stored order is the truth
+            if (order != null && status.equals(order.getStatus())) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    // Up to limit orders of the customer with an id greater than afterId, in id order
+    public List<Order> findByCustomer(OrderStore store, String customerName, long afterId, int limit) {
+        return find(store, byCustomer.get(customerName), afterId, limit);
+    }
+
+    // Up to limit orders created in [from, to), ordered by createdAt then id
+    public List<Order> findByCreatedAt(OrderStore store, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Order> result = new ArrayList<>(Math.min(limit, 1024));
+        List<Order> bucket = new ArrayList<>();
+        for (LongPostings postings : byMinute.subMap(bucketOf(from), true, bucketOf(to), true).values()) {
+            LongPostings.Snapshot ids = postings.snapshot();
+            bucket.clear();
+            for (int i = 0; i < ids.size(); i++) {
+                Order order = store.get(ids.ids()[i]);
+                LocalDateTime createdAt = order.getCreatedAt();
+                // Buckets at either end can hold orders just outside the range
+                if (!createdAt.isBefore(from) && createdAt.isBefore(to)) {
+                    bucket.add(order);
+                }
+            }
+            bucket.sort(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId));
+            for (Order order : bucket) {
+                if (result.size() == limit) {
+                    return result;
+                }
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    private static List<Order> find(OrderStore store, LongPostings postings, long afterId, int limit) {
+        if (postings == null) {
+            return List.of();
+        }
+        LongPostings.Snapshot ids = postings.snapshot();
+        int from = ids.positionAfter(afterId);
+        int to = (int) Math.min((long) from + limit, ids.size());
+        List<Order> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            result.add(store.get(ids.ids()[i]));
+        }
+        return result;
+    }
+
+    private PositionBitmap statusBitmap(String status) {
+        return byStatus.computeIfAbsent(status, key -> new PositionBitmap());
+    }
+
+    private static long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), BUCKET_SECONDS);
+    }
+}
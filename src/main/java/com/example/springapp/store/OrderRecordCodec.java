@@ -0,0 +1,97 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Compact binary layout of an Order, shared by the write-ahead log and snapshots.
+//
+//   id:long  amount:flag+double  createdAt:flag+epochSecond:long+nano:int
+//   customerName:string  status:string
+//
+// Strings are an int byte length (-1 for null) followed by UTF-8 bytes. Status
+// updates log the whole order followed by its version:long; creates are always
+// version 0 and leave it out.
+final class OrderRecordCodec {
+
+    private OrderRecordCodec() {}
+
+    static byte[] encode(Order order) {
+        return encode(order, 0).array();
+    }
+
+    static byte[] encodeUpdate(Order order) {
+        ByteBuffer buffer = encode(order, 8);
+        buffer.putLong(order.getVersion());
+        return buffer.array();
+    }
+
+    private static ByteBuffer encode(Order order, int extra) {
+        byte[] customerName = utf8(order.getCustomerName());
+        byte[] status = utf8(order.getStatus());
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 9 + 13 + sizeOf(customerName) + sizeOf(status) + extra);
+
+        buffer.putLong(order.getId());
+        Double amount = order.getAmount();
+        buffer.put((byte) (amount != null ? 1 : 0));
+        buffer.putDouble(amount != null ? amount : 0.0);
+        LocalDateTime createdAt = order.getCreatedAt();
+        buffer.put((byte) (createdAt != null ? 1 : 0));
+        buffer.putLong(createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : 0L);
+        buffer.putInt(createdAt != null ? createdAt.getNano() : 0);
+        putString(buffer, customerName);
+        putString(buffer, status);
+        return buffer;
+    }
+
+    // Decodes a record from the buffer's current position and advances past it
+    static Order decode(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        boolean hasAmount = buffer.get() != 0;
+        double amount = buffer.getDouble();
+        boolean hasCreatedAt = buffer.get() != 0;
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        String customerName = getString(buffer);
+        String status = getString(buffer);
+        return new Order(id, customerName, hasAmount ? amount : null,
+            hasCreatedAt ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC) : null,
+            status);
+    }
+
+    static Order decodeUpdate(ByteBuffer buffer) {
+        Order order = decode(buffer);
+        order.setVersion(buffer.getLong());
+        return order;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return 4 + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
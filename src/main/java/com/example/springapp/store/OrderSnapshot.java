@@ -0,0 +1,231 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+// Compact columnar snapshot of the first N orders of a store.
+//
+//   magic:int  version:int  count:int  firstId:long
+//   customerName dictionary, status dictionary   (size:int, then length:int + UTF-8 each)
+//   amount present bitmap, amount double[count]
+//   createdAt present bitmap, epochSecond long[count], nano int[count]
+//   customerName code int[count]   (-1 for null, -2 for an abandoned id)
+//   status code int[count]   (-1 for null)
+//   order version long[count]
+//
+// An abandoned id is abandoned again on load. Ids are dense, so they are
+// implied by firstId + position. Loading maps the file and bulk-copies each
+// column, which is far cheaper than decoding log frames.
+// Status and version are read from the same order object, so a concurrent
+// update is either fully in the snapshot or replayed from the log after it.
+final class OrderSnapshot {
+    private static final int MAGIC = 0x4F534E50; // "OSNP"
+    private static final int VERSION = 1;
+    private static final int ABANDONED = -2;
+    private static final int LOAD_BATCH = 16_384;
+
+    private OrderSnapshot() {}
+
+    // Writes the first count orders of the store; the file appears atomically
+    static void write(Path file, OrderStore store, int count) throws IOException {
+        Map<String, Integer> customerNames = new HashMap<>();
+        Map<String, Integer> statuses = new HashMap<>();
+        int[] customerCodes = new int[count];
+        int[] statusCodes = new int[count];
+        long[] versions = new long[count];
+        for (int i = 0; i < count; i++) {
+            Order order = store.at(i);
+            if (order == null) {
+                customerCodes[i] = ABANDONED;
+                statusCodes[i] = -1;
+                continue;
+            }
+            customerCodes[i] = code(customerNames, order.getCustomerName());
+            statusCodes[i] = code(statuses, order.getStatus());
+            versions[i] = order.getVersion();
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeLong(store.firstId());
+            writeDictionary(out, customerNames);
+            writeDictionary(out, statuses);
+
+            writeBitmap(out, count, i -> amountAt(store, i) != null);
+            for (int i = 0; i < count; i++) {
+                Double amount = amountAt(store, i);
+                out.writeDouble(amount != null ? amount : 0.0);
+            }
+
+            writeBitmap(out, count, i -> createdAtOf(store, i) != null);
+            for (int i = 0; i < count; i++) {
+                LocalDateTime createdAt = createdAtOf(store, i);
+                out.writeLong(createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : 0L);
+            }
+            for (int i = 0; i < count; i++) {
+                LocalDateTime createdAt = createdAtOf(store, i);
+                out.writeInt(createdAt != null ? createdAt.getNano() : 0);
+            }
+
+            for (int code : customerCodes) {
+                out.writeInt(code);
+            }
+            for (int code : statusCodes) {
+                out.writeInt(code);
+            }
+            for (long version : versions) {
+                out.writeLong(version);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Loads a snapshot into an empty store and returns the id of its last order
+    static long load(Path file, OrderStore target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not an order snapshot: " + file);
+            }
+            int count = buffer.getInt();
+            long firstId = buffer.getLong();
+            String[] customerNames = readDictionary(buffer);
+            String[] statuses = readDictionary(buffer);
+
+            byte[] amountPresent = readBytes(buffer, bitmapSize(count));
+            DoubleBuffer amounts = column(buffer, count, Double.BYTES).asDoubleBuffer();
+            byte[] createdAtPresent = readBytes(buffer, bitmapSize(count));
+            LongBuffer epochSeconds = column(buffer, count, Long.BYTES).asLongBuffer();
+            IntBuffer nanos = column(buffer, count, Integer.BYTES).asIntBuffer();
+            IntBuffer customerCodes = column(buffer, count, Integer.BYTES).asIntBuffer();
+            IntBuffer statusCodes = column(buffer, count, Integer.BYTES).asIntBuffer();
+            LongBuffer versions = column(buffer, count, Long.BYTES).asLongBuffer();
+
+            List<Order> batch = new ArrayList<>(Math.min(count, LOAD_BATCH));
+            for (int i = 0; i < count; i++) {
+                LocalDateTime createdAt = isSet(createdAtPresent, i)
+                    ? LocalDateTime.ofEpochSecond(epochSeconds.get(i), nanos.get(i), ZoneOffset.UTC)
+                    : null;
+                int customerCode = customerCodes.get(i);
+                if (customerCode == ABANDONED) {
+                    // Keep the batch a contiguous run of ids
+                    target.putAll(batch);
+                    batch.clear();
+                    target.abandon(firstId + i);
+                    continue;
+                }
+                int statusCode = statusCodes.get(i);
+                Order order = new Order(firstId + i,
+                    customerCode >= 0 ? customerNames[customerCode] : null,
+                    isSet(amountPresent, i) ? amounts.get(i) : null,
+                    createdAt,
+                    statusCode >= 0 ? statuses[statusCode] : null);
+                order.setVersion(versions.get(i));
+                batch.add(order);
+                if (batch.size() == LOAD_BATCH) {
+                    target.putAll(batch);
+                    batch.clear();
+                }
+            }
+            target.putAll(batch);
+            return firstId + count - 1;
+        }
+    }
+
+    private static Double amountAt(OrderStore store, int position) {
+        Order order = store.at(position);
+        return order != null ? order.getAmount() : null;
+    }
+
+    private static LocalDateTime createdAtOf(OrderStore store, int position) {
+        Order order = store.at(position);
+        return order != null ? order.getCreatedAt() : null;
+    }
+
+    private static int code(Map<String, Integer> dictionary, String value) {
+        return value == null ? -1 : dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> dictionary) throws IOException {
+        String[] values = new String[dictionary.size()];
+        dictionary.forEach((value, code) -> values[code] = value);
+        out.writeInt(values.length);
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer) {
+        String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new String(readBytes(buffer, buffer.getInt()), StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    private static void writeBitmap(DataOutputStream out, int count, IntPredicate isSet)
+            throws IOException {
+        byte[] bitmap = new byte[bitmapSize(count)];
+        for (int i = 0; i < count; i++) {
+            if (isSet.test(i)) {
+                bitmap[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.write(bitmap);
+    }
+
+    private static boolean isSet(byte[] bitmap, int i) {
+        return (bitmap[i >>> 3] & (1 << (i & 7))) != 0;
+    }
+
+    private static int bitmapSize(int count) {
+        return (count + 7) >>> 3;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    // Slices the next fixed-width column out of the buffer and skips past it
+    private static ByteBuffer column(ByteBuffer buffer, int count, int width) {
+        ByteBuffer column = buffer.slice(buffer.position(), count * width);
+        buffer.position(buffer.position() + count * width);
+        return column;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+
+import java.util.List;
+
+// Storage for orders keyed by their service-assigned id.
+// Ids are handed out densely by OrderService, so implementations may rely on
+// id order being the same as creation order. An id whose create failed after it
+// was reserved is abandoned: it keeps its position in the sequence, but no order
+// is ever visible there.
+public interface OrderStore {
+
+    // Stores an order that already carries its assigned id
+    void put(Order order);
+
+    // Stores a batch of orders in one pass; their ids should form a contiguous range
+    default void putAll(List<Order> batch) {
+        for (Order order : batch) {
+            put(order);
+        }
+    }
+
+    // Gives up a reserved id whose order will never be stored, so orders after it
+    // still become visible. A no-op if the order was stored after all.
+    void abandon(long id);
+
+    Order get(Long id);
+
+    // Swaps a stored order for a new version of it if the store still holds
+    // exactly current, and reports whether it did
+    boolean replace(Order current, Order updated);
+
+    // Id at position 0 of the sequence; the order with id n sits at n - firstId()
+    long firstId();
+
+    // Number of positions visible to readers, abandoned ids included
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Order at a position of the visible sequence, or null when out of range or
+    // when the id at that position was abandoned
+    Order at(int position);
+
+    // Position of an id in the visible sequence, or -1 when it is not visible yet
+    default int positionOf(long id) {
+        long position = id - firstId();
+        return position < 0 || position >= size() ? -1 : (int) position;
+    }
+
+    // Visible orders at positions [offset, offset + limit), in id order; abandoned
+    // ids are skipped, so the list may be shorter than limit
+    List<Order> range(int offset, int limit);
+
+    // Up to limit visible orders with an id greater than afterId, in id order
+    List<Order> rangeAfter(long afterId, int limit);
+
+    // Oldest visible order, or null when the store holds none
+    Order first();
+
+    // Newest visible order, or null when the store holds none
+    Order last();
+
+    // All visible orders in id order
+    List<Order> values();
+}
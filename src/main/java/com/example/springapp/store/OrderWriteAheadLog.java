@@ -0,0 +1,372 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Segmented, memory-mapped write-ahead log of order records.
+//
+// Each segment is a fixed-size mapped file of frames:
+//
+//   length:int  crc32c:int  type:byte  payload (OrderRecordCodec)
+//
+// where length and crc cover type + payload and type is CREATE or a status
+// UPDATE carrying the order's new version. The length is written last, so a
+// record torn by a crash reads as zero (end of log) or fails its checksum; either
+// way recovery stops there and the tail is zeroed before appending resumes.
+//
+// Durability uses group commit: append() only copies into the mapping, and
+// sync() forces everything appended so far with a single msync, so threads
+// that arrive while a force is running share the next one.
+public class OrderWriteAheadLog implements Closeable {
+    static final byte CREATE = 1;
+    static final byte UPDATE = 2;
+
+    private static final int HEADER_SIZE = 8;
+    // Zero bytes that mark the end of written data after the last valid frame
+    private static final int ZERO_RUN = 64 * 1024;
+    private static final String SEGMENT_PREFIX = "orders-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // Guarded by appendLock
+    private Segment current;
+    // Highest order id in each segment before the active one, for compaction
+    private final TreeMap<Long, Long> closedSegments = new TreeMap<>();
+    private long appended;
+    private IOException failure;
+
+    private volatile long durable;
+
+    private OrderWriteAheadLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    // Opens (or creates) the log in directory, passing every recovered create and
+    // update to the matching callback in log order before appending is allowed
+    public static OrderWriteAheadLog open(Path directory, int segmentSize,
+                                          Consumer<Order> creates, Consumer<Order> updates)
+            throws IOException {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        OrderWriteAheadLog log = new OrderWriteAheadLog(directory, segmentSize);
+        log.recover(creates, updates);
+        return log;
+    }
+
+    // Copies the order into the log and returns its sequence number for sync()
+    public long append(Order order) throws IOException {
+        return append(CREATE, OrderRecordCodec.encode(order), order.getId());
+    }
+
+    // Logs a new version of an existing order; replay keeps the highest version
+    public long appendUpdate(Order order) throws IOException {
+        return append(UPDATE, OrderRecordCodec.encodeUpdate(order), order.getId());
+    }
+
+    // A record too large for a segment is refused on its own; the log stays usable
+    private long append(byte type, byte[] payload, long id) throws IOException {
+        int length = 1 + payload.length;
+        if (HEADER_SIZE + length > segmentSize) {
+            throw new IllegalArgumentException("Order " + id + " needs " + length
+                + " bytes, more than a log segment holds");
+        }
+        int checksum = checksum(type, payload);
+
+        appendLock.lock();
+        try {
+            if (failure != null) {
+                throw new IOException("Write-ahead log is unavailable after an earlier failure", failure);
+            }
+            try {
+                if (current.position + HEADER_SIZE + length > current.buffer.capacity()) {
+                    rollSegment();
+                }
+                int position = current.position;
+                MappedByteBuffer buffer = current.buffer;
+                buffer.putInt(position + 4, checksum);
+                buffer.put(position + HEADER_SIZE, type);
+                buffer.put(position + HEADER_SIZE + 1, payload);
+                // Written last: until this lands the record reads as the end of the log
+                buffer.putInt(position, length);
+                current.position = position + HEADER_SIZE + length;
+                current.maxId = Math.max(current.maxId, id);
+                return ++appended;
+            } catch (IOException | UncheckedIOException e) {
+                failure = e instanceof IOException io ? io : ((UncheckedIOException) e).getCause();
+                throw failure;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Returns once every record up to sequence is on disk
+    public void sync(long sequence) throws IOException {
+        if (durable >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durable >= sequence) {
+                // Another thread's force covered us while we waited
+                return;
+            }
+            long target;
+            Segment segment;
+            int from;
+            int to;
+            appendLock.lock();
+            try {
+                if (failure != null) {
+                    throw new IOException("Write-ahead log is unavailable after an earlier failure", failure);
+                }
+                target = appended;
+                segment = current;
+                from = segment.forced;
+                to = segment.position;
+                segment.forced = to;
+            } finally {
+                appendLock.unlock();
+            }
+            // Earlier segments were forced in full when the log rolled past them
+            try {
+                if (to > from) {
+                    segment.buffer.force(from, to - from);
+                }
+            } catch (UncheckedIOException e) {
+                markFailed(e.getCause());
+                throw e.getCause();
+            }
+            durable = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Starts a new segment so everything logged so far sits in closed segments,
+    // which compact() can drop once a snapshot covers them
+    public void roll() throws IOException {
+        appendLock.lock();
+        try {
+            if (failure != null) {
+                throw new IOException("Write-ahead log is unavailable after an earlier failure", failure);
+            }
+            if (current.position > 0) {
+                rollSegment();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Deletes closed segments whose every order has an id of at most coveredId.
+    // A segment holding a later id (logged but not yet applied when the snapshot
+    // was taken) is kept and replayed.
+    public int compact(long coveredId) throws IOException {
+        List<Long> covered;
+        appendLock.lock();
+        try {
+            covered = closedSegments.entrySet().stream()
+                .filter(segment -> segment.getValue() <= coveredId)
+                .map(Map.Entry::getKey)
+                .toList();
+            covered.forEach(closedSegments::remove);
+        } finally {
+            appendLock.unlock();
+        }
+        for (long index : covered) {
+            Files.deleteIfExists(segmentPath(directory, index));
+        }
+        return covered.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (current != null) {
+                current.buffer.force();
+                current.channel.close();
+                current = null;
+                failure = new IOException("Write-ahead log is closed");
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private void recover(Consumer<Order> creates, Consumer<Order> updates) throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+
+        if (segments.isEmpty()) {
+            current = Segment.open(directory, 0, segmentSize);
+            return;
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = Segment.open(directory, indexOf(segments.get(i)), segmentSize);
+            int end = replay(segment, creates, updates);
+            if (i < segments.size() - 1) {
+                closedSegments.put(segment.index, segment.maxId);
+                segment.channel.close();
+                continue;
+            }
+            // Clear whatever a torn write left behind so it cannot be misread later
+            int dirtyEnd = endOfData(segment.buffer, end);
+            if (dirtyEnd > end) {
+                zero(segment.buffer, end, dirtyEnd);
+                segment.buffer.force(end, dirtyEnd - end);
+            }
+            segment.position = end;
+            segment.forced = end;
+            current = segment;
+        }
+    }
+
+    // Replays valid records from the start of a segment and returns where they end
+    private static int replay(Segment segment, Consumer<Order> creates, Consumer<Order> updates) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_SIZE < buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - HEADER_SIZE) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(position + HEADER_SIZE, length);
+            if (checksum(body.duplicate()) != buffer.getInt(position + 4)) {
+                break;
+            }
+            byte type = body.get();
+            if (type != CREATE && type != UPDATE) {
+                break;
+            }
+            Order order = type == CREATE ? OrderRecordCodec.decode(body) : OrderRecordCodec.decodeUpdate(body);
+            segment.maxId = Math.max(segment.maxId, order.getId());
+            (type == CREATE ? creates : updates).accept(order);
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    // Called with appendLock held; the old segment is forced in full before the
+    // next one takes writes, which is what lets sync() only look at the active one
+    private void rollSegment() throws IOException {
+        Segment previous = current;
+        previous.buffer.force();
+        current = Segment.open(directory, previous.index + 1, segmentSize);
+        closedSegments.put(previous.index, previous.maxId);
+        previous.channel.close();
+    }
+
+    private void markFailed(IOException e) {
+        appendLock.lock();
+        try {
+            if (failure == null) {
+                failure = e;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Appends are sequential, so anything past the last valid frame ends at the
+    // first long run of untouched (zero) bytes. Scanning for it is far cheaper
+    // than dirtying and forcing the rest of a freshly mapped segment.
+    private static int endOfData(MappedByteBuffer buffer, int from) {
+        int end = from;
+        for (int position = from; position < buffer.capacity() && position - end < ZERO_RUN; position++) {
+            if (buffer.get(position) != 0) {
+                end = position + 1;
+            }
+        }
+        return end;
+    }
+
+    private static void zero(MappedByteBuffer buffer, int from, int to) {
+        byte[] zeros = new byte[8192];
+        for (int position = from; position < to; position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, to - position));
+        }
+    }
+
+    private static int checksum(byte type, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static int checksum(ByteBuffer body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        final long index;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int position;
+        int forced;
+        long maxId;
+
+        private Segment(long index, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path directory, long index, int segmentSize) throws IOException {
+            FileChannel channel = FileChannel.open(segmentPath(directory, index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                // Keep the size of segments written under a different configuration
+                long size = Math.max(channel.size(), segmentSize);
+                return new Segment(index, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+    }
+}
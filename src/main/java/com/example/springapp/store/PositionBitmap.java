@@ -0,0 +1,74 @@
+package com.example.springapp.store;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Lock-free bitmap over store positions. Chunks are allocated on first use, so a
+// rare key only costs memory in the parts of the sequence where it occurs.
+final class PositionBitmap {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE >>> 6;
+    private static final int MAX_CHUNKS = 1 << 16;
+
+    private final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+    void set(int position) {
+        AtomicLongArray chunk = chunk(position, true);
+        int word = (position & CHUNK_MASK) >>> 6;
+        long bit = 1L << position;
+        long bits = chunk.get(word);
+        while ((bits & bit) == 0 && !chunk.compareAndSet(word, bits, bits | bit)) {
+            bits = chunk.get(word);
+        }
+    }
+
+    void clear(int position) {
+        AtomicLongArray chunk = chunk(position, false);
+        if (chunk == null) {
+            return;
+        }
+        int word = (position & CHUNK_MASK) >>> 6;
+        long bit = 1L << position;
+        long bits = chunk.get(word);
+        while ((bits & bit) != 0 && !chunk.compareAndSet(word, bits, bits & ~bit)) {
+            bits = chunk.get(word);
+        }
+    }
+
+    // First set position in [from, to), or -1 when there is none
+    int nextSetBit(int from, int to) {
+        int position = from;
+        while (position < to) {
+            int chunkIndex = position >>> CHUNK_BITS;
+            AtomicLongArray chunk = chunks.get(chunkIndex);
+            if (chunk != null) {
+                int word = (position & CHUNK_MASK) >>> 6;
+                long bits = chunk.get(word) & (-1L << position);
+                while (bits == 0 && ++word < WORDS_PER_CHUNK) {
+                    bits = chunk.get(word);
+                }
+                if (bits != 0) {
+                    int found = (chunkIndex << CHUNK_BITS) + (word << 6) + Long.numberOfTrailingZeros(bits);
+                    return found < to ? found : -1;
+                }
+            }
+            position = (chunkIndex + 1) << CHUNK_BITS;
+        }
+        return -1;
+    }
+
+    private AtomicLongArray chunk(int position, boolean create) {
+        int chunkIndex = position >>> CHUNK_BITS;
+        if (chunkIndex >= MAX_CHUNKS) {
+            throw new IllegalArgumentException("Position out of range: " + position);
+        }
+        AtomicLongArray chunk = chunks.get(chunkIndex);
+        if (chunk == null && create) {
+            chunks.compareAndSet(chunkIndex, null, new AtomicLongArray(WORDS_PER_CHUNK));
+            chunk = chunks.get(chunkIndex);
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.java21features.recordpatterns.model;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Heap footprint of a large in-memory dataset of payments and orders whose
+// status, cardType and customerTier arrive as separate String instances, as
+// they do from a JSON parser. Prints the live heap after a full GC and the top
+// of the class histogram.
+//
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.jvmArgs=-Xmx4g \
+//       -Dloadtest.main=com.example.java21features.recordpatterns.model.ValueDictionaryHeapHarness \
+//       -Dloadtest.args="records"
+public class ValueDictionaryHeapHarness {
+    private static final String[] STATUSES = {"COMPLETED", "PENDING", "FAILED"};
+    private static final String[] ORDER_STATUSES = {"PENDING", "PAID", "SHIPPED", "DELIVERED"};
+    private static final String[] CARD_TYPES = {"VISA", "MASTERCARD", "AMEX", "DISCOVER"};
+    private static final String[] TIERS = {"BASIC", "PREMIUM", "VIP"};
+
+    public static void main(String[] args) throws Exception {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+        String[] lastFours = new String[10_000];
+        for (int i = 0; i < lastFours.length; i++) {
+            lastFours[i] = String.format("%04d", i);
+        }
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<String> items = List.of("Book");
+
+        long before = liveHeap();
+        Object[] dataset = new Object[records];
+        for (int i = 0; i < records; i++) {
+            // Shared strings (ids aside) so the histogram isolates the repeated fields
+            dataset[i] = switch (i & 3) {
+                case 0 -> new Payment.CreditCard("id", 10, parsed(random, STATUSES), lastFours[random.nextInt(lastFours.length)],
+                    parsed(random, CARD_TYPES), false);
+                case 1 -> new Payment.PayPal("id", 10, parsed(random, STATUSES), "a@b.com", false);
+                case 2 -> new Payment.BankTransfer("id", 10, parsed(random, STATUSES), "Chase", "REF");
+                default -> new Order("id", "Ann", items, 10, date, parsed(random, ORDER_STATUSES), parsed(random, TIERS));
+            };
+        }
+        long after = liveHeap();
+        System.out.printf("%,d records: %,d MB live (%.1f bytes per record)%n",
+            records, (after - before) >> 20, (double) (after - before) / records);
+        printHistogram(8);
+        System.out.println(dataset.length);
+    }
+
+    private static String parsed(SplittableRandom random, String[] values) {
+        return new String(values[random.nextInt(values.length)].toCharArray());
+    }
+
+    private static long liveHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void printHistogram(int rows) throws Exception {
+        String histogram = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+            new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+            new Object[] {null}, new String[] {String[].class.getName()});
+        histogram.lines().limit(rows + 2).forEach(System.out::println);
+    }
+}
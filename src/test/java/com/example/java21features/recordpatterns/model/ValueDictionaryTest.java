@@ -0,0 +1,62 @@
+package com.example.java21features.recordpatterns.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueDictionaryTest {
+
+    // A copy such as a JSON parser produces: equal, but a different instance
+    private static String parsed(String value) {
+        return new String(value.toCharArray());
+    }
+
+    @Test
+    public void testKnownValuesBecomeTheirLiterals() {
+        String status = parsed("COMPLETED");
+        assertNotSame("COMPLETED", status);
+        assertSame("COMPLETED", ValueDictionary.STATUSES.canonical(status));
+        assertSame("VIP", ValueDictionary.CUSTOMER_TIERS.canonical(parsed("VIP")));
+        assertNull(ValueDictionary.CARD_TYPES.canonical(null));
+    }
+
+    @Test
+    public void testOtherValuesAreSharedUpToTheCap() {
+        // A private dictionary, so the shared ones are not filled for other tests
+        ValueDictionary tiers = new ValueDictionary(4, "BASIC", "PREMIUM", "VIP");
+        String first = tiers.canonical(parsed("GOLD"));
+        assertSame(first, tiers.canonical(parsed("GOLD")));
+        assertSame("VIP", tiers.canonical(parsed("VIP")));
+
+        for (int i = 0; i < 8; i++) {
+            String value = parsed("TIER-" + i);
+            assertEquals(value, tiers.canonical(value));
+        }
+        // GOLD and the first three fill the cap; later values are returned as given
+        assertSame(first, tiers.canonical(parsed("GOLD")));
+        String shared = tiers.canonical(parsed("TIER-2"));
+        assertSame(shared, tiers.canonical(parsed("TIER-2")));
+        String late = parsed("TIER-LATE");
+        assertSame(late, tiers.canonical(late));
+        assertNotSame(tiers.canonical(parsed("TIER-5")), tiers.canonical(parsed("TIER-5")));
+    }
+
+    @Test
+    public void testModelsCanonicalizeOnCreation() {
+        Payment.CreditCard card = new Payment.CreditCard("cc", 1, parsed("PENDING"), "1234", parsed("VISA"), false);
+        assertSame("PENDING", card.status());
+        assertSame("VISA", card.cardType());
+        assertSame("FAILED", new Payment.PayPal("pp", 1, parsed("FAILED"), "a@b.com", false).status());
+        assertSame("COMPLETED", new Payment.BankTransfer("bt", 1, parsed("COMPLETED"), "Chase", "R").status());
+
+        Order order = new Order("o", "Ann", List.of(), 1, LocalDateTime.now(), parsed("SHIPPED"), parsed("PREMIUM"));
+        assertSame("SHIPPED", order.status());
+        assertSame("PREMIUM", order.customerTier());
+        assertTrue(order.isPriority());
+        // Records still compare by value
+        assertEquals(card, new Payment.CreditCard("cc", 1, "PENDING", "1234", "VISA", false));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// {0}-style interpolation as templates grow: one replaceAll per placeholder
+// (the previous TemplateService/StringTemplatesDemo implementation) versus a
+// template compiled once, and compiled on every call through the cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+public class CompiledTemplateBenchmark {
+
+    // Placeholders in the template, each surrounded by a line of text
+    @Param({"2", "8", "32"})
+    private int placeholders;
+
+    private String text;
+    private Object[] values;
+    private CompiledTemplate compiled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder template = new StringBuilder();
+        values = new Object[placeholders];
+        for (int i = 0; i < placeholders; i++) {
+            template.append("Line ").append(i).append(" of the message: {").append(i).append("}\n");
+            values[i] = (i & 1) == 0 ? "value-" + i : (Object) (i * 1000);
+        }
+        text = template.toString();
+        compiled = CompiledTemplate.compile(text);
+    }
+
+    @Benchmark
+    public String replaceAll() {
+        String result = text;
+        for (int i = 0; i < values.length; i++) {
+            String placeholder = "\\{" + i + "\\}";
+            result = result.replaceAll(placeholder,
+                values[i] != null ? values[i].toString() : "null");
+        }
+        return result;
+    }
+
+    @Benchmark
+    public String compiled() {
+        return compiled.render(values);
+    }
+
+    @Benchmark
+    public String cached() {
+        return CompiledTemplate.of(text).render(values);
+    }
+}
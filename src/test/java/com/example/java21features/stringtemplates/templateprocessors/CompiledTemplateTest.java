@@ -0,0 +1,51 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledTemplateTest {
+
+    @Test
+    public void testRendersPlaceholdersInAnyOrder() {
+        CompiledTemplate template = CompiledTemplate.compile("{1} and {0}, then {1} again");
+        assertEquals(3, template.placeholders());
+        assertEquals("b and a, then b again", template.render("a", "b"));
+        assertEquals("Name: Alice, Age: 30, Score: 95.5, Big: 12345678901, null",
+            CompiledTemplate.compile("Name: {0}, Age: {1}, Score: {2}, Big: {3}, {4}")
+                .render("Alice", 30, 95.5, 12_345_678_901L, null));
+    }
+
+    @Test
+    public void testValuesAreInsertedVerbatim() {
+        CompiledTemplate template = CompiledTemplate.compile("Total {0}, path {1}");
+        // replaceAll treated these as group references and escapes
+        assertEquals("Total $1.50, path C:\\temp", template.render("$1.50", "C:\\temp"));
+        // Placeholder text inside a value is not substituted a second time
+        assertEquals("Total {1}, path x", template.render("{1}", "x"));
+    }
+
+    @Test
+    public void testOnlyPlainIndexesArePlaceholders() {
+        CompiledTemplate template = CompiledTemplate.compile("{\"a\": {0}} {name} {007} {} {12345} {0");
+        assertEquals(1, template.placeholders());
+        assertEquals("{\"a\": 1} {name} {007} {} {12345} {0", template.render(1));
+        // Missing values leave the placeholder as written
+        assertEquals("{0} and {10}", CompiledTemplate.compile("{0} and {10}").render());
+        assertEquals("", CompiledTemplate.compile("").render("unused"));
+    }
+
+    @Test
+    public void testOfCachesByTemplateText() {
+        String text = "Hello {0}";
+        assertSame(CompiledTemplate.of(text), CompiledTemplate.of(new String(text.toCharArray())));
+        assertEquals("Hello x", CompiledTemplate.of(text).render("x"));
+    }
+
+    @Test
+    public void testRenderToAppends() {
+        StringBuilder sb = new StringBuilder("> ");
+        CompiledTemplate.compile("{0}-{1}").renderTo(sb, 1, 2);
+        assertEquals("> 1-2", sb.toString());
+    }
+}
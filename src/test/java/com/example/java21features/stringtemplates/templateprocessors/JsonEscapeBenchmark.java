@@ -0,0 +1,93 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Escaping a string value for JSON: the original quote-only String.replace
+// (which emits invalid JSON for backslashes and control characters), a
+// per-character switch, the table-driven escapeJsonValue and Jackson's encoder,
+// the last three appending into a reused StringBuilder
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+public class JsonEscapeBenchmark {
+
+    // short: a 24-character name; long: 4 KB of prose; escaped: 4 KB with a
+    // quote, backslash or newline every 40 characters
+    @Param({"short", "long", "escaped"})
+    private String payload;
+
+    private String value;
+    private final StringBuilder buffer = new StringBuilder(16_384);
+    private final JsonStringEncoder jackson = JsonStringEncoder.getInstance();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String sentence = "The quick brown fox jumps over the lazy dog. ";
+        StringBuilder sb = new StringBuilder();
+        switch (payload) {
+            case "short" -> sb.append("Margaret Hamilton-Winter");
+            case "long" -> {
+                while (sb.length() < 4096) {
+                    sb.append(sentence);
+                }
+            }
+            default -> {
+                char[] specials = {'"', '\\', '\n'};
+                for (int i = 0; sb.length() < 4096; i++) {
+                    sb.append(sentence, 0, 39).append(specials[i % specials.length]);
+                }
+            }
+        }
+        value = sb.toString();
+    }
+
+    @Benchmark
+    public String legacyReplace() {
+        return "\"" + value.replace("\"", "\\\"") + "\"";
+    }
+
+    @Benchmark
+    public StringBuilder perCharSwitch() {
+        buffer.setLength(0);
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                case '\b' -> buffer.append("\\b");
+                case '\f' -> buffer.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+                }
+            }
+        }
+        return buffer.append('"');
+    }
+
+    @Benchmark
+    public StringBuilder table() {
+        buffer.setLength(0);
+        return JsonTemplateProcessor.escapeJsonValue(buffer.append('"'), value).append('"');
+    }
+
+    @Benchmark
+    public StringBuilder jackson() {
+        buffer.setLength(0);
+        jackson.quoteAsString(value, buffer.append('"'));
+        return buffer.append('"');
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonTemplateProcessorTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testRendersValuesByType() throws Exception {
+        JsonTemplateProcessor.JsonTemplate json = JsonTemplateProcessor.of(
+            "{\"id\": {0}, \"name\": {1}, \"ok\": {2}, \"price\": {3}, \"none\": {4}, \"tags\": {5}}",
+            7L, "Bob", true, new BigDecimal("9.50"), null, List.of("a", "b"));
+        assertEquals("{\"id\": 7, \"name\": \"Bob\", \"ok\": true, \"price\": 9.50, \"none\": null, \"tags\": \"[a, b]\"}",
+            json.getJsonString());
+        assertTrue(json.isValid());
+        assertEquals(mapper.readTree(json.getJsonString()), json.getJsonNode());
+    }
+
+    @Test
+    public void testPlaceholdersInsideStringsRenderText() {
+        JsonTemplateProcessor.JsonTemplate json = JsonTemplateProcessor.of(
+            "{\"status\": \"{0}\", \"message\": \"Hello, {1}!\", \"literal\": \"{\\\"x\\\": {0}}\"}", "ok", 42);
+        ObjectNode node = json.getJsonNode();
+        assertEquals("ok", node.get("status").asText());
+        assertEquals("Hello, 42!", node.get("message").asText());
+        // A placeholder in an escaped quote is still inside the string
+        assertEquals("{\"x\": ok}", node.get("literal").asText());
+    }
+
+    @Test
+    public void testValuesAreEscaped() throws Exception {
+        String nasty = "quote \" backslash \\ newline \n tab \t bell \u0007 dollar $1 {0}";
+        JsonTemplateProcessor.JsonTemplate json = JsonTemplateProcessor.of("{\"a\": {0}, \"b\": \"<{0}>\", \"c\": {1}}",
+            nasty, Double.NaN);
+        ObjectNode node = (ObjectNode) mapper.readTree(json.getJsonString());
+        assertEquals(nasty, node.get("a").asText());
+        assertEquals("<" + nasty + ">", node.get("b").asText());
+        assertEquals("NaN", node.get("c").asText());
+    }
+
+    @Test
+    public void testInvalidTemplatesFailOnEveryCall() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalArgumentException.class, () -> JsonTemplateProcessor.of("{\"a\": {0}", 1));
+            assertThrows(IllegalArgumentException.class, () -> JsonTemplateProcessor.of("{{0}: 1}", "key"));
+            assertThrows(IllegalArgumentException.class, () -> JsonTemplateProcessor.of("[{0}]", 1));
+        }
+        // A value placeholder needs a value; one inside a string stays as written
+        assertThrows(IllegalArgumentException.class, () -> JsonTemplateProcessor.of("{\"a\": {0}}"));
+        assertEquals("{\"a\": \"{0}\"}", JsonTemplateProcessor.of("{\"a\": \"{0}\"}").getJsonString());
+    }
+
+    @Test
+    public void testTreeIsBuiltOnceOnDemand() {
+        JsonTemplateProcessor.JsonTemplate json = JsonTemplateProcessor.of("{\"a\": {0}}", 1);
+        assertSame(json.getJsonNode(), json.getJsonNode());
+        assertEquals(1, json.getJsonNode().get("a").asInt());
+    }
+
+    @Test
+    public void testEscapingMatchesJackson() throws Exception {
+        SplittableRandom random = new SplittableRandom(7);
+        JsonStringEncoder jackson = JsonStringEncoder.getInstance();
+        for (int n = 0; n < 20_000; n++) {
+            String value = randomString(random, random.nextInt(40));
+            String escaped = JsonTemplateProcessor.escapeJsonValue(new StringBuilder(), value).toString();
+            if (!hasLoneSurrogate(value)) {
+                assertEquals(new String(jackson.quoteAsString(value)), escaped, () -> "escaping " + codes(value));
+            }
+            // Lone surrogates are escaped, so the output always survives UTF-8
+            assertEquals(escaped, new String(escaped.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+            assertEquals(value, mapper.readValue("\"" + escaped + "\"", String.class), () -> "round trip " + codes(value));
+        }
+    }
+
+    @Test
+    public void testEscapesUnpairedSurrogates() {
+        String pair = "\uD83D\uDE00";
+        assertEquals("a" + pair + "b", JsonTemplateProcessor.escapeJsonValue(new StringBuilder(), "a" + pair + "b").toString());
+        assertEquals("\\uD83Dx\\uDE00", JsonTemplateProcessor.escapeJsonValue(new StringBuilder(), "\uD83Dx\uDE00").toString());
+        assertEquals("\\u0001\\u001F", JsonTemplateProcessor.escapeJsonValue(new StringBuilder(), "\u0001\u001F").toString());
+    }
+
+    // Mostly plain text, with quotes, backslashes, control characters, non-ASCII
+    // BMP characters, surrogate pairs and the odd unpaired surrogate
+    private static String randomString(SplittableRandom random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(10)) {
+                case 0 -> sb.append((char) random.nextInt(0x20));
+                case 1 -> sb.append(random.nextBoolean() ? '"' : '\\');
+                case 2 -> sb.append((char) random.nextInt(0x80, 0xD800));
+                case 3 -> sb.appendCodePoint(random.nextInt(0x10000, 0x110000));
+                case 4 -> sb.append((char) random.nextInt(0xD800, 0xE000));
+                default -> sb.append((char) random.nextInt(0x20, 0x80));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasLoneSurrogate(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String codes(String value) {
+        return value.chars().mapToObj(Integer::toHexString).toList().toString();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Against in-memory H2: a filtered user search built with a StringBuilder,
+// prepared and bound with setObject on every call (the previous path, minus
+// the validation that rejected it) versus a precompiled shape on a cached
+// statement with typed setters; and 1,000 upserts one executeUpdate at a time
+// versus executeBatch
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+public class SqlTemplateBenchmark {
+    private static final String UPSERT = "MERGE INTO users KEY(id) VALUES (?, ?, ?, ?, ?)";
+
+    private final SqlTemplateProcessor.StatementShapes userSearch = SqlTemplateProcessor.shapes(
+        "SELECT * FROM users WHERE 1=1",
+        " AND username = ?", " AND email = ?", " AND age >= ?", " AND active = ?");
+
+    private Connection connection;
+    private PreparedStatementCache statements;
+    private List<Object[]> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(64), email VARCHAR(64), "
+                + "age INT, active BOOLEAN)");
+            stmt.execute("CREATE INDEX users_username ON users (username)");
+        }
+        statements = new PreparedStatementCache(connection, 64);
+        rows = new ArrayList<>();
+        for (long id = 0; id < 1_000; id++) {
+            rows.add(new Object[] {id, "user" + id, "u" + id + "@example.com", (int) (id % 60), id % 2 == 0});
+        }
+        statements.executeBatch(UPSERT, rows, 1_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        statements.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public int searchRebuilt() throws SQLException {
+        StringBuilder query = new StringBuilder("SELECT * FROM users WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        query.append(" AND username = ?");
+        params.add("user42");
+        query.append(" AND age >= ?");
+        params.add(18);
+        query.append(" AND active = ?");
+        params.add(true);
+        try (PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            return count(stmt);
+        }
+    }
+
+    @Benchmark
+    public int searchShapeCached() throws SQLException {
+        return count(userSearch.bind(0b1101, "user42", 18, true).prepare(statements));
+    }
+
+    @Benchmark
+    public long upsertPerRow() throws SQLException {
+        long updated = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(UPSERT)) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    stmt.setObject(i + 1, row[i]);
+                }
+                updated += stmt.executeUpdate();
+            }
+        }
+        return updated;
+    }
+
+    @Benchmark
+    public long upsertBatch() throws SQLException {
+        return statements.executeBatch(UPSERT, rows, 256);
+    }
+
+    private static int count(PreparedStatement stmt) throws SQLException {
+        int count = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlTemplateProcessorTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(64), email VARCHAR(64), "
+                + "age INT, active BOOLEAN, balance DECIMAL(12, 2))");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void testShapesCoverEveryCombination() {
+        SqlTemplateProcessor.StatementShapes shapes = SqlTemplateProcessor.shapes("SELECT id FROM users WHERE 1=1",
+            " AND a = ?", " AND b = ?", " AND c = ?");
+        assertEquals(8, shapes.size());
+        assertEquals("SELECT id FROM users WHERE 1=1", shapes.query(0));
+        assertEquals("SELECT id FROM users WHERE 1=1 AND a = ? AND c = ?", shapes.query(0b101));
+        assertSame(shapes.query(0b101), shapes.bind(0b101, 1, 2).getQuery());
+        assertEquals(List.of(1, 2), shapes.bind(0b101, 1, 2).getParameters());
+        assertThrows(IllegalArgumentException.class, () -> shapes.bind(0b101, 1));
+        assertThrows(IllegalArgumentException.class, () -> shapes.query(8));
+        assertThrows(IllegalArgumentException.class, () -> SqlTemplateProcessor.shapes("x", new String[11]));
+    }
+
+    @Test
+    public void testBatchInsertWithTypedParameters() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 0; id < 1_000; id++) {
+            rows.add(new Object[] {id, "user" + id, id % 3 == 0 ? null : "u" + id + "@example.com", (int) (id % 60),
+                id % 2 == 0, new BigDecimal(id).movePointLeft(2)});
+        }
+        try (PreparedStatementCache statements = new PreparedStatementCache(connection, 8)) {
+            String insert = "INSERT INTO users VALUES (?, ?, ?, ?, ?, ?)";
+            assertEquals(1_000, statements.executeBatch(insert, rows, 128));
+            assertEquals(1, statements.prepared());
+
+            PreparedStatement stmt = SqlTemplateProcessor.shapes("SELECT COUNT(*), SUM(balance) FROM users WHERE 1=1",
+                " AND email IS NULL", " AND active = ?").bind(0b11, true).prepare(statements);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                // ids divisible by 6
+                assertEquals(167, rs.getLong(1));
+                assertEquals(new BigDecimal("831.66"), rs.getBigDecimal(2));
+            }
+        }
+    }
+
+    @Test
+    public void testFailedBatchLeavesNothingQueued() throws Exception {
+        String insert = "INSERT INTO users VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatementCache statements = new PreparedStatementCache(connection, 8)) {
+            List<Object[]> rows = List.of(
+                new Object[] {1L, "a", null, 1, true, BigDecimal.ONE},
+                new Object[] {2L, "b"});
+            assertThrows(IllegalArgumentException.class, () -> statements.executeBatch(insert, rows, 10));
+
+            // The first row was queued but never sent, and must not leak into the next batch
+            assertEquals(1, statements.executeBatch(insert,
+                List.<Object[]>of(new Object[] {3L, "c", null, 3, false, BigDecimal.TEN}), 10));
+            assertEquals(1, statements.prepared());
+
+            // Typed nulls, bound through a shape
+            SqlTemplateProcessor.shapes(insert).bind(0, 4L, null, null, null, null, null)
+                .prepare(statements).executeUpdate();
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT id FROM users ORDER BY id")) {
+                assertTrue(rs.next());
+                assertEquals(3L, rs.getLong(1));
+                assertTrue(rs.next());
+                assertEquals(4L, rs.getLong(1));
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    @Test
+    public void testParameterTypesAreReadOncePerStatement() throws Exception {
+        PreparedStatement target = connection.prepareStatement("INSERT INTO users VALUES (?, ?, ?, ?, ?, ?)");
+        AtomicInteger metadataReads = new AtomicInteger();
+        PreparedStatement counting = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                if (method.getName().equals("getParameterMetaData")) {
+                    metadataReads.incrementAndGet();
+                }
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        Connection wrapped = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {Connection.class}, (proxy, method, args) ->
+                method.getName().equals("prepareStatement") ? counting : method.invoke(connection, args));
+
+        try (PreparedStatementCache statements = new PreparedStatementCache(wrapped, 8)) {
+            List<Object[]> rows = new ArrayList<>();
+            for (long id = 1; id <= 50; id++) {
+                rows.add(new Object[] {id, null, null, null, null, null});
+            }
+            assertEquals(50, statements.executeBatch("INSERT INTO users VALUES (?, ?, ?, ?, ?, ?)", rows, 16));
+            SqlTemplateProcessor.shapes("INSERT INTO users VALUES (?, ?, ?, ?, ?, ?)")
+                .bind(0, 51L, null, null, null, null, null).prepare(statements).executeUpdate();
+        }
+        assertEquals(1, metadataReads.get());
+    }
+
+    @Test
+    public void testStatementsAreReusedAndEvicted() throws Exception {
+        try (PreparedStatementCache statements = new PreparedStatementCache(connection, 2)) {
+            PreparedStatement first = statements.prepare("VALUES 1");
+            assertSame(first, statements.prepare("VALUES 1"));
+            statements.prepare("VALUES 2");
+            // VALUES 1 was used more recently than VALUES 2 before this
+            statements.prepare("VALUES 1");
+            statements.prepare("VALUES 3");
+            assertEquals(2, statements.size());
+            assertEquals(3, statements.prepared());
+            assertSame(first, statements.prepare("VALUES 1"));
+            PreparedStatement third = statements.prepare("VALUES 3");
+            statements.prepare("VALUES 2");
+            assertTrue(first.isClosed());
+            assertFalse(third.isClosed());
+            statements.close();
+            assertTrue(third.isClosed());
+            assertFalse(connection.isClosed());
+        }
+    }
+}
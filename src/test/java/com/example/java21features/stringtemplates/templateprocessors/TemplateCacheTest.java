@@ -0,0 +1,118 @@
+package com.example.java21features.stringtemplates.templateprocessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        TemplateCache<String> cache = new TemplateCache<>(4);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("A", cache.get("a", key -> {
+                loads.incrementAndGet();
+                return key.toUpperCase();
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEvictsEntriesNotReadSinceLastSweep() {
+        TemplateCache<String> cache = new TemplateCache<>(3);
+        cache.get("a", String::toUpperCase);
+        cache.get("b", String::toUpperCase);
+        cache.get("c", String::toUpperCase);
+        // a is read again, so b is the first entry without a second chance
+        cache.get("a", String::toUpperCase);
+        cache.get("d", String::toUpperCase);
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictions());
+
+        long misses = cache.misses();
+        cache.get("a", String::toUpperCase);
+        cache.get("c", String::toUpperCase);
+        cache.get("d", String::toUpperCase);
+        assertEquals(misses, cache.misses());
+        cache.get("b", String::toUpperCase);
+        assertEquals(misses + 1, cache.misses());
+    }
+
+    @Test
+    public void testStaysBoundedUnderChurn() {
+        TemplateCache<Integer> cache = new TemplateCache<>(64);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, cache.get("template " + i, key -> Integer.parseInt(key.substring(9))));
+        }
+        assertEquals(64, cache.size());
+        assertEquals(10_000 - 64, cache.evictions());
+    }
+
+    @Test
+    public void testFailedLoadsAreNotCached() {
+        TemplateCache<String> cache = new TemplateCache<>(4);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalArgumentException.class, () -> cache.get("bad", key -> {
+                throw new IllegalArgumentException(key);
+            }));
+        }
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.misses());
+        assertThrows(IllegalArgumentException.class, () -> new TemplateCache<>(0));
+    }
+
+    @Test
+    public void testConcurrentReadersAndWriters() throws Exception {
+        TemplateCache<String> cache = new TemplateCache<>(32);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        String key = "k" + ((i * 31 + seed) % 48);
+                        assertEquals(key + "!", cache.get(key, k -> k + "!"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 32 + 4, "size " + cache.size());
+        assertEquals(80_000, cache.hits() + cache.misses());
+    }
+
+    @Test
+    public void testProcessorsShareCaches() {
+        CompiledTemplate.of("cache {0}");
+        long hits = CompiledTemplate.cache().hits();
+        assertSame(CompiledTemplate.of("cache {0}"), CompiledTemplate.of("cache {0}"));
+        assertEquals(hits + 2, CompiledTemplate.cache().hits());
+
+        long sqlHits = SqlTemplateProcessor.cache().hits();
+        long sqlMisses = SqlTemplateProcessor.cache().misses();
+        for (int i = 0; i < 2; i++) {
+            assertEquals("VALUES (?, {0})", SqlTemplateProcessor.of("VALUES (?, \\{0\\})", i).getQuery());
+            // Rejected on every call, never cached
+            assertThrows(IllegalArgumentException.class, () -> SqlTemplateProcessor.of("VALUES (?); DROP TABLE t", 1));
+        }
+        assertEquals(sqlHits + 1, SqlTemplateProcessor.cache().hits());
+        assertEquals(sqlMisses + 3, SqlTemplateProcessor.cache().misses());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.springapp.analytics;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.store.ConcurrentOrderStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Per-status and per-day revenue: OrderColumns scans versus iterating a
+// LinkedHashMap of boxed Orders. Run with -prof gc to see allocation per op.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx3g"})
+public class OrderAnalyticsBenchmark {
+    private static final String[] STATUSES = {"PENDING", "PROCESSING", "COMPLETED", "CANCELLED"};
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"100000", "1000000"})
+    private int orderCount;
+
+    private final LinkedHashMap<Long, Order> boxed = new LinkedHashMap<>();
+    private final OrderColumns columns = new OrderColumns();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        for (long id = 1; id <= orderCount; id++) {
+            Order order = new Order(id, "Customer", (double) (id % 500),
+                START.plusMinutes(id), STATUSES[(int) (id % STATUSES.length)]);
+            boxed.put(id, order);
+            store.put(order);
+        }
+        columns.catchUp(store);
+    }
+
+    @Benchmark
+    public List<OrderAggregate> columnarByStatus() {
+        return columns.aggregateByStatus();
+    }
+
+    @Benchmark
+    public Map<String, double[]> boxedByStatus() {
+        Map<String, double[]> totals = new HashMap<>();
+        for (Order order : boxed.values()) {
+            double[] total = totals.computeIfAbsent(order.getStatus(), status -> new double[2]);
+            total[0]++;
+            total[1] += order.getAmount();
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public List<OrderAggregate> columnarByDay() {
+        return columns.aggregateByTime(START, START.plusYears(3), 86_400, null);
+    }
+
+    @Benchmark
+    public Map<Long, double[]> boxedByDay() {
+        Map<Long, double[]> totals = new HashMap<>();
+        for (Order order : boxed.values()) {
+            long day = order.getCreatedAt().toEpochSecond(ZoneOffset.UTC) / 86_400;
+            double[] total = totals.computeIfAbsent(day, key -> new double[2]);
+            total[0]++;
+            total[1] += order.getAmount();
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.springapp.analytics;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.store.ConcurrentOrderStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderColumnsTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+    @Test
+    public void testAggregatesByStatus() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        put(store, 1, 100.0, DAY, "COMPLETED");
+        put(store, 2, 50.0, DAY, "PENDING");
+        put(store, 3, 25.0, DAY, "COMPLETED");
+        put(store, 4, null, null, null);
+
+        OrderColumns columns = new OrderColumns();
+        assertEquals(4, columns.catchUp(store));
+
+        List<OrderAggregate> byStatus = columns.aggregateByStatus();
+        assertEquals(List.of(
+            OrderAggregate.of(null, 1, 0.0),
+            OrderAggregate.of("COMPLETED", 2, 125.0),
+            OrderAggregate.of("PENDING", 1, 50.0)
+        ), byStatus);
+        assertEquals(62.5, byStatus.get(1).average());
+
+        // Only new orders are copied on the next catch-up
+        put(store, 5, 10.0, DAY, "PENDING");
+        assertEquals(5, columns.catchUp(store));
+        assertEquals(2, columns.aggregateByStatus().get(2).count());
+    }
+
+    @Test
+    public void testAggregatesByDayWithStatusFilter() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        put(store, 1, 100.0, DAY.plusHours(1), "COMPLETED");
+        put(store, 2, 50.0, DAY.plusHours(23), "COMPLETED");
+        put(store, 3, 25.0, DAY.plusDays(2), "COMPLETED");
+        put(store, 4, 80.0, DAY.plusDays(2), "PENDING");
+        put(store, 5, 10.0, DAY.plusDays(9), "COMPLETED");
+        put(store, 6, 10.0, null, "COMPLETED");
+
+        OrderColumns columns = new OrderColumns();
+        columns.catchUp(store);
+
+        List<OrderAggregate> byDay = columns.aggregateByTime(DAY, DAY.plusDays(7), 86_400, "COMPLETED");
+        assertEquals(List.of(
+            OrderAggregate.of(DAY.toString(), 2, 150.0),
+            OrderAggregate.of(DAY.plusDays(2).toString(), 1, 25.0)
+        ), byDay);
+
+        assertEquals(105.0, columns.aggregateByTime(DAY, DAY.plusDays(7), 86_400, null).get(1).sum());
+        assertTrue(columns.aggregateByTime(DAY, DAY.plusDays(7), 86_400, "UNKNOWN").isEmpty());
+        assertThrows(IllegalArgumentException.class,
+            () -> columns.aggregateByTime(DAY, DAY.plusDays(7), 1, null));
+    }
+
+    @Test
+    public void testStatusesPastTheDictionaryCapShareOneCode() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        int distinct = 300;
+        for (int id = 1; id <= distinct; id++) {
+            put(store, id, 1.0, DAY, "S" + id);
+        }
+
+        OrderColumns columns = new OrderColumns();
+        assertEquals(distinct, columns.catchUp(store));
+        put(store, distinct + 1, 2.0, DAY, "S" + (distinct + 1));
+        assertEquals(distinct + 1, columns.catchUp(store));
+
+        List<OrderAggregate> byStatus = columns.aggregateByStatus();
+        assertEquals(254, byStatus.size());
+        assertEquals(OrderAggregate.of("S1", 1, 1.0), byStatus.get(0));
+        assertEquals(OrderAggregate.of(OrderColumns.OTHER_STATUS, distinct + 1 - 253, distinct - 253 + 2.0),
+            byStatus.get(253));
+
+        assertEquals(1, columns.aggregateByTime(DAY, DAY.plusDays(1), 86_400, "S1").get(0).count());
+        assertThrows(IllegalArgumentException.class,
+            () -> columns.aggregateByTime(DAY, DAY.plusDays(1), 86_400, "S300"));
+    }
+
+    @Test
+    public void testSpansSeveralChunks() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        int count = 40_000;
+        for (int id = 1; id <= count; id++) {
+            put(store, id, 1.0, DAY, id % 2 == 0 ? "EVEN" : "ODD");
+        }
+
+        OrderColumns columns = new OrderColumns();
+        columns.catchUp(store);
+
+        List<OrderAggregate> byStatus = columns.aggregateByStatus();
+        assertEquals(count / 2, byStatus.get(0).count());
+        assertEquals(count / 2, byStatus.get(1).count());
+        assertEquals(count / 2.0, byStatus.get(1).sum());
+    }
+
+    @Test
+    public void testStatusUpdatesMoveRevenueBetweenStatuses() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        put(store, 1, 100.0, DAY, "PENDING");
+        put(store, 2, 50.0, DAY, "PENDING");
+        OrderColumns columns = new OrderColumns();
+        columns.catchUp(store);
+
+        Order current = store.get(2L);
+        Order updated = new Order(2L, "Customer", 50.0, DAY, "SHIPPED");
+        updated.setVersion(1);
+        assertTrue(store.replace(current, updated));
+        columns.statusChanged(store, updated);
+
+        assertEquals(List.of(
+            OrderAggregate.of("PENDING", 1, 100.0),
+            OrderAggregate.of("SHIPPED", 1, 50.0)
+        ), columns.aggregateByStatus());
+        assertEquals(50.0, columns.aggregateByTime(DAY, DAY.plusDays(1), 86_400, "SHIPPED").get(0).sum());
+    }
+
+    private static void put(ConcurrentOrderStore store, long id, Double amount, LocalDateTime createdAt, String status) {
+        store.put(new Order(id, "Customer", amount, createdAt, status));
+    }
+}
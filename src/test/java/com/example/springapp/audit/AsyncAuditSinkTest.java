@@ -0,0 +1,196 @@
+package com.example.springapp.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncAuditSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private static AuditEvent event(int producer, int sequence) {
+        return new AuditEvent(1_700_000_000_000L, "credit-card", producer + "-" + sequence, 10.5, "VISA");
+    }
+
+    private List<String> allLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                lines.addAll(Files.readAllLines(file));
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testRingBufferKeepsOrderAndReportsFull() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(event(0, i)));
+        }
+        assertFalse(buffer.offer(event(0, 4)));
+        assertEquals(4, buffer.size());
+
+        AuditEvent[] batch = new AuditEvent[3];
+        assertEquals(3, buffer.drain(batch));
+        assertEquals("0-0", batch[0].paymentId());
+        assertEquals("0-2", batch[2].paymentId());
+        assertTrue(buffer.offer(event(0, 4)));
+        assertEquals(2, buffer.drain(batch));
+        assertEquals("0-4", batch[1].paymentId());
+        assertEquals(0, buffer.drain(batch));
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer(6));
+    }
+
+    @Test
+    public void testBlockingSinkWritesEveryEventFromEveryThread() throws Exception {
+        int producers = 8;
+        int perProducer = 20_000;
+        Path file = directory.resolve("audit.log");
+        try (AsyncAuditSink sink = new AsyncAuditSink(file, 1L << 30, 1, 64, OverflowPolicy.BLOCK, 1)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                threads.add(Thread.ofVirtual().start(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        sink.record(event(producer, i));
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(producers * perProducer, lines.size());
+        // Each producer's events keep their order
+        int[] next = new int[producers];
+        for (String line : lines) {
+            String id = line.substring(line.indexOf("\"paymentId\":\"") + 13, line.indexOf("\",\"amount\""));
+            int producer = Integer.parseInt(id.substring(0, id.indexOf('-')));
+            assertEquals(next[producer]++, Integer.parseInt(id.substring(id.indexOf('-') + 1)));
+        }
+        assertEquals("{\"at\":\"2023-11-14T22:13:20Z\",\"event\":\"credit-card\",\"paymentId\":\"0-0\","
+            + "\"amount\":10.5,\"detail\":\"VISA\"}",
+            lines.stream().filter(line -> line.contains("\"0-0\"")).findFirst().orElseThrow());
+    }
+
+    @Test
+    public void testDroppingSinkAccountsForEveryEvent() throws Exception {
+        int events = 200_000;
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncAuditSink sink = new AsyncAuditSink(directory.resolve("audit.log"), 1L << 30, 1, 16, OverflowPolicy.DROP, 1);
+        sink.bindTo(registry);
+        for (int i = 0; i < events; i++) {
+            sink.record(event(0, i));
+        }
+        sink.close();
+
+        assertTrue(sink.dropped() > 0);
+        assertEquals(events, sink.written() + sink.dropped());
+        assertEquals(sink.written(), allLines().size());
+        assertEquals(sink.dropped(), registry.get("audit.events.dropped").functionCounter().count());
+        assertEquals(0, registry.get("audit.queue.depth").gauge().value());
+    }
+
+    @Test
+    public void testSamplingSinkKeepsSomeOverflow() throws Exception {
+        int events = 200_000;
+        AsyncAuditSink sink = new AsyncAuditSink(directory.resolve("audit.log"), 1L << 30, 1, 16, OverflowPolicy.SAMPLE, 10);
+        for (int i = 0; i < events; i++) {
+            sink.record(event(0, i));
+        }
+        sink.close();
+
+        assertTrue(sink.dropped() > 0);
+        assertEquals(events, sink.written() + sink.dropped());
+        // Every tenth overflowing event waited for room rather than being dropped
+        assertTrue(sink.written() > events / 11, sink.written() + " written");
+    }
+
+    @Test
+    public void testIdleWriterParksUntilAnEventArrives() throws Exception {
+        Path file = directory.resolve("audit.log");
+        try (AsyncAuditSink sink = new AsyncAuditSink(file, 1L << 30, 1, 16, OverflowPolicy.BLOCK, 1)) {
+            Thread writer = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("audit-writer") && thread.isAlive())
+                .findFirst().orElseThrow();
+            // Parked without a timeout, not polling
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (writer.getState() != Thread.State.WAITING) {
+                assertTrue(System.nanoTime() < deadline, "writer is " + writer.getState());
+                Thread.sleep(1);
+            }
+            sink.record(event(0, 0));
+            while (sink.written() == 0) {
+                assertTrue(System.nanoTime() < deadline, "event was not written");
+                Thread.sleep(1);
+            }
+        }
+        assertEquals(1, Files.readAllLines(file).size());
+    }
+
+    @Test
+    public void testEventsRecordedDuringCloseAreWrittenOrDropped() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        AsyncAuditSink sink = new AsyncAuditSink(directory.resolve("audit.log"), 1L << 30, 1, 64, OverflowPolicy.BLOCK, 1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    sink.record(event(producer, i));
+                }
+            }));
+        }
+        while (sink.written() == 0) {
+            Thread.sleep(1);
+        }
+        sink.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, sink.written() + sink.dropped());
+        assertEquals(sink.written(), allLines().size());
+    }
+
+    @Test
+    public void testRotatesBySizeAndKeepsMaxFiles() throws Exception {
+        Path file = directory.resolve("audit.log");
+        try (AsyncAuditSink sink = new AsyncAuditSink(file, 4096, 3, 16, OverflowPolicy.BLOCK, 1)) {
+            for (int i = 0; i < 1_000; i++) {
+                sink.record(event(0, i));
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("audit.log", "audit.log.1", "audit.log.2", "audit.log.3"),
+                files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+        for (String name : List.of("audit.log", "audit.log.1", "audit.log.2", "audit.log.3")) {
+            assertTrue(Files.size(directory.resolve(name)) <= 4096, name);
+        }
+        // The newest events are in the current file
+        List<String> current = Files.readAllLines(file);
+        assertTrue(current.get(current.size() - 1).contains("\"0-999\""));
+    }
+
+    @Test
+    public void testEscapesStringsInJson() {
+        AuditEvent event = new AuditEvent(0, "note", "id \"1\"", Double.NaN, "a\\b\nc\u0001");
+        assertEquals("{\"at\":\"1970-01-01T00:00:00Z\",\"event\":\"note\",\"paymentId\":\"id \\\"1\\\"\","
+            + "\"amount\":null,\"detail\":\"a\\\\b\\nc\\u0001\"}", event.toJson());
+    }
+}
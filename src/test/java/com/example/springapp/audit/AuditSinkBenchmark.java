@@ -0,0 +1,71 @@
+package com.example.springapp.audit;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.service.LoggingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// LoggingService.auditPayment from 8 threads: the old synchronous println to
+// stdout (here a file, so the benchmark output stays readable) versus the
+// asynchronous sink, blocking or dropping when its buffer is full
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+@Threads(8)
+public class AuditSinkBenchmark {
+    private static final Payment PAYMENT = new Payment.CreditCard("cc-1", 99.5, "COMPLETED", "1234", "VISA", false);
+
+    @Param({"STDOUT", "BLOCK", "DROP"})
+    private String sink;
+
+    private Path directory;
+    private PrintStream originalOut;
+    private AsyncAuditSink asyncSink;
+    private LoggingService loggingService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        if (sink.equals("STDOUT")) {
+            originalOut = System.out;
+            System.setOut(new PrintStream(new FileOutputStream(directory.resolve("stdout.log").toFile()), true));
+            loggingService = new LoggingService(AuditSink.stdout());
+        } else {
+            asyncSink = new AsyncAuditSink(directory.resolve("audit.log"), 64L << 20, 2, 8192,
+                OverflowPolicy.valueOf(sink), 1);
+            loggingService = new LoggingService(asyncSink);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (originalOut != null) {
+            System.out.close();
+            System.setOut(originalOut);
+        }
+        if (asyncSink != null) {
+            asyncSink.close();
+            System.out.printf("%n%,d written, %,d dropped%n", asyncSink.written(), asyncSink.dropped());
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void auditPayment() {
+        loggingService.auditPayment(PAYMENT);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.springapp.codec;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Encoding and decoding a batch of 1,000 payments: PaymentCodec into a direct
+// buffer versus Jackson JSON. Setup prints the encoded sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+public class PaymentCodecBenchmark {
+    private static final int PAYMENTS = 1_000;
+    private static final TypeReference<List<Payment>> PAYMENT_LIST = new TypeReference<>() {};
+
+    private List<Payment> payments;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final PaymentCodec.Encoder encoder = new PaymentCodec.Encoder();
+    private final PaymentCodec.Decoder decoder = new PaymentCodec.Decoder();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectWriter jsonWriter = mapper.writerFor(PAYMENT_LIST);
+    private final ObjectReader jsonReader = mapper.readerFor(PAYMENT_LIST);
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] cardTypes = {"VISA", "MASTERCARD", "AMEX"};
+        String[] banks = {"Chase", "Barclays", "HSBC", "Wells Fargo"};
+        payments = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            double amount = random.nextLong(1_000_000) / 100.0;
+            String status = random.nextInt(10) == 0 ? "PENDING" : "COMPLETED";
+            payments.add(switch (random.nextInt(3)) {
+                case 0 -> new Payment.CreditCard("cc-" + i, amount, status, "%04d".formatted(random.nextInt(10_000)),
+                    cardTypes[random.nextInt(cardTypes.length)], random.nextInt(10) == 0);
+                case 1 -> new Payment.PayPal("pp-" + i, amount, status, "customer" + random.nextInt(100_000) + "@example.com",
+                    random.nextInt(5) == 0);
+                default -> new Payment.BankTransfer("bt-" + i, amount, status, banks[random.nextInt(banks.length)],
+                    "REF-" + random.nextInt(1_000_000));
+            });
+        }
+        json = jsonWriter.writeValueAsBytes(payments);
+        encodeBinary();
+        System.out.printf("%n%,d payments: %,d bytes binary, %,d bytes JSON%n", PAYMENTS, buffer.limit(), json.length);
+    }
+
+    private void encodeBinary() {
+        buffer.clear();
+        encoder.reset();
+        for (Payment payment : payments) {
+            encoder.encode(payment, buffer);
+        }
+        buffer.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer binaryEncode() {
+        encodeBinary();
+        return buffer;
+    }
+
+    @Benchmark
+    public Payment binaryDecode() {
+        ByteBuffer input = buffer.duplicate();
+        decoder.reset();
+        Payment last = null;
+        while (input.hasRemaining()) {
+            last = decoder.decode(input);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return jsonWriter.writeValueAsBytes(payments);
+    }
+
+    @Benchmark
+    public List<Payment> jsonDecode() throws IOException {
+        return jsonReader.readValue(json);
+    }
+}
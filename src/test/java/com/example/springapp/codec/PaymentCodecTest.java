@@ -0,0 +1,201 @@
+package com.example.springapp.codec;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentCodecTest {
+    private static final String[] STATUSES = {"COMPLETED", "PENDING", "FAILED"};
+    private static final String[] CARD_TYPES = {"VISA", "MASTERCARD", "AMEX"};
+    private static final String[] BANKS = {"Chase", "Barclays", "Société Générale", "三菱UFJ"};
+
+    // Random payments over the whole input space: null strings, non-ASCII and
+    // surrogate pairs, and amounts that are whole cents, fractional cents,
+    // negative zero, NaN, infinite or huge
+    static List<Payment> randomPayments(long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double amount = switch (random.nextInt(8)) {
+                case 0 -> random.nextDouble() * 1e6;
+                case 1 -> -random.nextLong(1_000_000) / 100.0;
+                case 2 -> new double[] {-0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.MAX_VALUE, 1e15, 1e-9}[random.nextInt(6)];
+                default -> random.nextLong(10_000_000) / 100.0;
+            };
+            String id = random.nextInt(20) == 0 ? null : "pay-" + random.nextLong();
+            String status = pick(random, STATUSES);
+            payments.add(switch (random.nextInt(3)) {
+                case 0 -> new Payment.CreditCard(id, amount, status, random.nextInt(20) == 0 ? "" : "%04d".formatted(random.nextInt(10_000)),
+                    pick(random, CARD_TYPES), random.nextBoolean());
+                case 1 -> new Payment.PayPal(id, amount, status, random.nextInt(10) == 0 ? "émile😀@example.com" : "user" + i + "@example.com",
+                    random.nextBoolean());
+                default -> new Payment.BankTransfer(id, amount, status, pick(random, BANKS),
+                    random.nextInt(20) == 0 ? null : "REF-" + i);
+            });
+        }
+        return payments;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return random.nextInt(20) == 0 ? null : values[random.nextInt(values.length)];
+    }
+
+    private static void assertRoundTrip(List<Payment> payments, ByteBuffer buffer) {
+        PaymentCodec.Encoder encoder = new PaymentCodec.Encoder();
+        for (Payment payment : payments) {
+            encoder.encode(payment, buffer);
+        }
+        buffer.flip();
+        PaymentCodec.Decoder decoder = new PaymentCodec.Decoder();
+        for (Payment payment : payments) {
+            assertEquals(payment, decoder.decode(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testRoundTripsRandomPaymentsThroughHeapAndDirectBuffers() {
+        for (long seed = 0; seed < 20; seed++) {
+            List<Payment> payments = randomPayments(seed, 5_000);
+            assertRoundTrip(payments, ByteBuffer.allocate(1 << 20));
+            assertRoundTrip(payments, ByteBuffer.allocateDirect(1 << 20));
+        }
+    }
+
+    @Test
+    public void testRoundTripsAtAnOffsetIntoASlice() {
+        ByteBuffer slice = ByteBuffer.allocate(1 << 20).position(123).slice();
+        assertRoundTrip(randomPayments(99, 1_000), slice);
+    }
+
+    @Test
+    public void testDictionaryCodesRepeatedValuesOnce() {
+        PaymentCodec.Encoder encoder = new PaymentCodec.Encoder();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        Payment transfer = new Payment.BankTransfer("bt-1", 12.5, "COMPLETED", "Deutsche Bank", "R");
+        encoder.encode(transfer, buffer);
+        int first = buffer.position();
+        encoder.encode(transfer, buffer);
+        // Second time: tag, 2-byte amount, id, and one-byte references for status and bank
+        assertEquals(1 + 2 + 5 + 1 + 1 + 2, buffer.position() - first);
+
+        buffer.flip();
+        PaymentCodec.Decoder decoder = new PaymentCodec.Decoder();
+        Payment.BankTransfer one = (Payment.BankTransfer) decoder.decode(buffer);
+        Payment.BankTransfer two = (Payment.BankTransfer) decoder.decode(buffer);
+        assertEquals(transfer, two);
+        // Decoded references share one String
+        assertSame(one.bank(), two.bank());
+    }
+
+    @Test
+    public void testKeepsWorkingOnceTheDictionaryIsFull() {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < PaymentCodec.MAX_DICTIONARY_SIZE * 3; i++) {
+            payments.add(new Payment.BankTransfer("bt-" + i, i, "COMPLETED", "Bank " + (i % 2_000), "R"));
+        }
+        assertRoundTrip(payments, ByteBuffer.allocate(1 << 20));
+    }
+
+    @Test
+    public void testOverflowLeavesBufferAndDictionaryUnchanged() {
+        List<Payment> payments = randomPayments(7, 2_000);
+        PaymentCodec.Encoder encoder = new PaymentCodec.Encoder();
+        PaymentCodec.Decoder decoder = new PaymentCodec.Decoder();
+        ByteBuffer frame = ByteBuffer.allocate(100);
+        List<Payment> decoded = new ArrayList<>();
+        int overflows = 0;
+        for (Payment payment : payments) {
+            try {
+                encoder.encode(payment, frame);
+            } catch (BufferOverflowException e) {
+                overflows++;
+                // Flush the frame and write the payment again
+                frame.flip();
+                while (frame.hasRemaining()) {
+                    decoded.add(decoder.decode(frame));
+                }
+                frame.clear();
+                encoder.encode(payment, frame);
+            }
+        }
+        frame.flip();
+        while (frame.hasRemaining()) {
+            decoded.add(decoder.decode(frame));
+        }
+        assertTrue(overflows > 100);
+        assertEquals(payments, decoded);
+    }
+
+    @Test
+    public void testUnderflowLeavesBufferAndDictionaryUnchanged() {
+        List<Payment> payments = randomPayments(11, 2_000);
+        ByteBuffer encoded = ByteBuffer.allocate(1 << 20);
+        PaymentCodec.Encoder encoder = new PaymentCodec.Encoder();
+        for (Payment payment : payments) {
+            encoder.encode(payment, encoded);
+        }
+        encoded.flip();
+
+        // Feed the stream in small chunks, so most payments are split across two
+        // reads and their first attempt underflows, often after a new dictionary entry
+        PaymentCodec.Decoder decoder = new PaymentCodec.Decoder();
+        ByteBuffer input = ByteBuffer.allocate(256);
+        List<Payment> decoded = new ArrayList<>();
+        int underflows = 0;
+        while (encoded.hasRemaining()) {
+            int chunk = Math.min(37, encoded.remaining());
+            input.put(encoded.slice(encoded.position(), chunk));
+            encoded.position(encoded.position() + chunk);
+            input.flip();
+            try {
+                while (input.hasRemaining()) {
+                    decoded.add(decoder.decode(input));
+                }
+            } catch (BufferUnderflowException e) {
+                underflows++;
+            }
+            input.compact();
+        }
+        assertTrue(underflows > 100);
+        assertEquals(payments, decoded);
+    }
+
+    @Test
+    public void testRejectsTruncatedAndMalformedInput() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        new PaymentCodec.Encoder().encode(new Payment.PayPal("pp-1", 10.0, "COMPLETED", "a@b.com", true), buffer);
+        buffer.flip();
+        ByteBuffer truncated = buffer.duplicate().limit(buffer.limit() - 3);
+        assertThrows(BufferUnderflowException.class, () -> new PaymentCodec.Decoder().decode(truncated));
+
+        assertThrows(IllegalArgumentException.class, () -> new PaymentCodec.Decoder().decode(ByteBuffer.wrap(new byte[] {(byte) 0x80})));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentCodec.Decoder().decode(ByteBuffer.wrap(new byte[] {3, 0})));
+        // PayPal in whole cents, null id, then a status referring to a dictionary entry never sent
+        assertThrows(IllegalArgumentException.class, () -> new PaymentCodec.Decoder().decode(
+            ByteBuffer.wrap(new byte[] {0b1001, 0, 0, 5, 0})));
+    }
+
+    @Test
+    public void testIsSmallerThanJackson() throws Exception {
+        List<Payment> payments = randomPayments(1, 10_000);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        PaymentCodec.Encoder encoder = new PaymentCodec.Encoder();
+        for (Payment payment : payments) {
+            encoder.encode(payment, buffer);
+        }
+        byte[] json = new ObjectMapper().writerFor(new TypeReference<List<Payment>>() {})
+            .writeValueAsBytes(payments);
+        assertTrue(buffer.position() * 3 < json.length, buffer.position() + " bytes vs " + json.length + " bytes of JSON");
+    }
+}
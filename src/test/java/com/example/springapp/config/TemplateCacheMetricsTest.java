@@ -0,0 +1,29 @@
+package com.example.springapp.config;
+
+import com.example.java21features.stringtemplates.templateprocessors.TemplateCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateCacheMetricsTest {
+
+    @Test
+    public void testPublishesCacheMeters() {
+        TemplateCache<String> cache = new TemplateCache<>(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TemplateCacheMetrics(cache, "templates.test").bindTo(registry);
+
+        cache.get("a", String::toUpperCase);
+        cache.get("a", String::toUpperCase);
+        cache.get("b", String::toUpperCase);
+        cache.get("c", String::toUpperCase);
+
+        assertEquals(1, registry.get("cache.gets").tag("cache", "templates.test").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(3, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.evictions").functionCounter().count());
+        assertEquals(2, registry.get("cache.size").gauge().value());
+        assertEquals(2, registry.get("cache.max.size").gauge().value());
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.springapp.config;
+
+import com.example.springapp.service.ScriptingService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Load test of request handling on platform versus virtual threads.
+//
+// Boots the web layer once per mode and drives it with closed-loop HTTP
+// clients. Each request produces ScriptingService file reports (real file-system
+// calls) and then blocks on a simulated downstream call, the shape of work where
+// a bounded platform pool queues requests and virtual threads do not. Virtual
+// mode also records JFR jdk.VirtualThreadPinned events and prints where they came
+// from.
+//
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="clients seconds downstreamMillis"
+public class ThreadModeLoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        int downstreamMillis = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        Path file = Files.createTempFile("load-report", ".txt");
+        Files.writeString(file, "x".repeat(1024));
+        try {
+            System.out.printf("%d clients, %ds per mode, %dms downstream call%n", clients, seconds, downstreamMillis);
+            for (boolean virtual : new boolean[] {false, true}) {
+                run(virtual, clients, seconds, downstreamMillis, file);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void run(boolean virtual, int clients, int seconds, int downstreamMillis, Path file)
+            throws Exception {
+        SpringApplication application = new SpringApplication(LoadApplication.class);
+        application.setDefaultProperties(Map.of(
+            "server.port", "0",
+            "spring.main.banner-mode", "off",
+            "logging.level.root", "warn",
+            "spring.threads.virtual.enabled", String.valueOf(virtual)));
+
+        Map<String, AtomicLong> pinnedAt = new ConcurrentHashMap<>();
+        try (var context = (ServletWebServerApplicationContext) application.run();
+             RecordingStream pinning = new RecordingStream()) {
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            pinning.onEvent("jdk.VirtualThreadPinned", event ->
+                pinnedAt.computeIfAbsent(topFrame(event), frame -> new AtomicLong()).incrementAndGet());
+            pinning.startAsync();
+
+            URI uri = URI.create("http://localhost:" + context.getWebServer().getPort()
+                + "/load/report?file=" + file + "&downstreamMillis=" + downstreamMillis);
+            // Short warm-up so both modes are measured with compiled code
+            drive(uri, Math.min(clients, 50), 3);
+            Result result = drive(uri, clients, seconds);
+
+            System.out.printf("%-8s threads: %,8.0f req/s  p50 %6.1f ms  p99 %7.1f ms  errors %d%n",
+                virtual ? "virtual" : "platform", result.throughput(), result.percentile(50),
+                result.percentile(99), result.errors());
+            if (virtual) {
+                System.out.println("  pinned virtual threads: "
+                    + (pinnedAt.isEmpty() ? "none" : pinnedAt.toString()));
+            }
+        }
+    }
+
+    // Each client sends its next request as soon as the previous one answers
+    private static Result drive(URI uri, int clients, int seconds) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        // One slot per client; reading them after the executor closes is safe
+        long[][] latencies = new long[clients][];
+        AtomicLong errors = new AtomicLong();
+
+        long start = System.nanoTime();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                LatencyLog log = new LatencyLog();
+                int index = i;
+                clientThreads.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                log.add(System.nanoTime() - sent);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    latencies[index] = log.toArray();
+                    return null;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, elapsed, errors.get());
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return event.getStackTrace().getFrames().get(0).getMethod().getName();
+    }
+
+    private static final class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private record Result(long[] sortedNanos, long elapsedNanos, long errors) {
+
+        double throughput() {
+            return sortedNanos.length * 1e9 / elapsedNanos;
+        }
+
+        double percentile(int percent) {
+            if (sortedNanos.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percent / 100.0 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @Import({ThreadingConfig.class, ScriptingService.class, LoadController.class})
+    static class LoadApplication {
+    }
+
+    @RestController
+    static class LoadController {
+        private final ScriptingService scriptingService;
+
+        LoadController(ScriptingService scriptingService) {
+            this.scriptingService = scriptingService;
+        }
+
+        @GetMapping("/load/report")
+        public List<String> report(@RequestParam String file, @RequestParam long downstreamMillis)
+                throws InterruptedException {
+            List<String> reports = scriptingService.generateFileReports(List.of(file, file));
+            // Stands in for a call to a slow downstream service
+            Thread.sleep(downstreamMillis);
+            return reports;
+        }
+    }
+}
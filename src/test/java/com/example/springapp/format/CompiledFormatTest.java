@@ -0,0 +1,66 @@
+package com.example.springapp.format;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledFormatTest {
+
+    private static String money(double value) {
+        return CompiledFormat.appendMoney(new StringBuilder(), value).toString();
+    }
+
+    private static void assertMoney(double value) {
+        assertEquals(String.format(Locale.US, "%.2f", value), money(value), () -> "value " + value);
+    }
+
+    @Test
+    public void testMoneyMatchesStringFormat() {
+        for (double value : new double[] {0, -0.0, 0.001, -0.001, 0.005, 0.015, 0.125, 1.005, 2.675, 1.115,
+                                          99.995, 1234.5, -1234.565, 0.994999, 9.995, 1e13 + 0.005, 1e20, -3.5e17,
+                                          Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN,
+                                          Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertMoney(value);
+        }
+    }
+
+    @Test
+    public void testMoneyMatchesStringFormatOnRandomAmounts() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            // Prices with up to 3 decimals (a third of them half-cent ties), and arbitrary doubles
+            assertMoney(random.nextLong(-10_000_000, 10_000_000) / 1000.0);
+            assertMoney(random.nextLong(-10_000_000, 10_000_000) / 1000.0 + 0.0005);
+            assertMoney((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(-3, 17)));
+        }
+    }
+
+    @Test
+    public void testFormatsLikeStringFormat() {
+        CompiledFormat format = CompiledFormat.compile("Processed %s: $%.2f x%d (100%%) %s");
+        assertEquals(4, format.arguments());
+        String text = format.start().add("cc-1").add(12.345).add(3).add(1.5).end().toString();
+        assertEquals(String.format(Locale.US, "Processed %s: $%.2f x%d (100%%) %s", "cc-1", 12.345, 3, 1.5), text);
+
+        StringBuilder reused = new StringBuilder("a; ");
+        CompiledFormat.compile("%s!").appendTo(reused).add((String) null).end();
+        assertEquals("a; null!", reused.toString());
+        assertEquals("plain", CompiledFormat.compile("plain").start().end().toString());
+    }
+
+    @Test
+    public void testRejectsUnsupportedPatternsAndWrongArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledFormat.compile("%5s"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledFormat.compile("%.3f"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledFormat.compile("50%"));
+
+        CompiledFormat format = CompiledFormat.compile("%s costs %.2f");
+        assertThrows(IllegalArgumentException.class, () -> format.start().add(1.0).add("x"));
+        assertThrows(IllegalArgumentException.class, () -> format.start().add("x").add(5));
+        assertThrows(IllegalStateException.class, () -> format.start().add("x").end());
+        assertThrows(IllegalStateException.class, () -> format.start().add("x").add(1.0).add("y"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.springapp.fraud;
+
+import java.time.Duration;
+
+// Throughput and latency of VelocityDetector on a replayable synthetic feed.
+//
+// Generates the feed once from the seed, then replays it: untimed warm-up
+// passes, passes timed as a whole for throughput, and one pass timing every
+// payment for the latency histogram. Each pass shifts the feed past the
+// longest window, so it starts from empty windows.
+//
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.example.springapp.fraud.FraudLoadHarness \
+//       -Dloadtest.args="backgroundPayments passes seed"
+public class FraudLoadHarness {
+    // Simulated payments per second of feed time
+    private static final int FEED_RATE = 200;
+
+    public static void main(String[] args) {
+        int backgroundPayments = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        SyntheticPaymentFeed feed = SyntheticPaymentFeed.generate(seed, backgroundPayments, FEED_RATE);
+        System.out.printf("Seed %d: %s%n", seed, feed);
+        long shift = feed.spanMillis + Duration.ofHours(2).toMillis();
+
+        VelocityDetector detector = detector();
+        for (int pass = 0; pass < 3; pass++) {
+            replay(detector, feed, pass * shift);
+        }
+
+        detector = detector();
+        long nanos = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            long start = System.nanoTime();
+            replay(detector, feed, pass * shift);
+            nanos += System.nanoTime() - start;
+        }
+        System.out.printf("Throughput: %,.0f payments/s over %d passes%n",
+            (double) feed.size() * passes / nanos * 1e9, passes);
+
+        // The replay above left every window expired, so this pass sees the same stream afresh
+        LatencyHistogram histogram = new LatencyHistogram();
+        long flaggedInjected = 0;
+        long flaggedBackground = 0;
+        long base = passes * shift;
+        for (int i = 0; i < feed.size(); i++) {
+            long start = System.nanoTime();
+            int flags = detector.observe(feed.payments[i], base + feed.times[i]);
+            histogram.record(System.nanoTime() - start);
+            if (flags != 0) {
+                if (feed.injected[i]) {
+                    flaggedInjected++;
+                } else {
+                    flaggedBackground++;
+                }
+            }
+        }
+        System.out.println("Latency per payment (ns, includes the nanoTime calls):");
+        System.out.print(histogram.summary());
+        System.out.printf("Flagged: %,d of %,d injected burst payments, %,d background payments%n",
+            flaggedInjected, feed.injectedCount(), flaggedBackground);
+        System.out.printf("Evictions: %,d, late payments: %,d%n", detector.evictions(), detector.late());
+    }
+
+    // Default limits, with room for every card and email active within their windows
+    private static VelocityDetector detector() {
+        return new VelocityDetector(
+            new VelocityLimits(Duration.ofMinutes(10), 10, 10, 500_000, 1 << 17),
+            new VelocityLimits(Duration.ofHours(1), 12, 20, 1_000_000, 1 << 18),
+            new VelocityLimits(Duration.ofMinutes(1), 12, 2_000, 500_000_000, 1 << 10));
+    }
+
+    private static void replay(VelocityDetector detector, SyntheticPaymentFeed feed, long shift) {
+        for (int i = 0; i < feed.size(); i++) {
+            detector.observe(feed.payments[i], shift + feed.times[i]);
+        }
+    }
+
+    // Log-linear histogram of non-negative longs: exact below 32, otherwise 16
+    // buckets per power of two, so a reported value is within ~6% of the truth
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int HALF = 1 << (SUB_BUCKET_BITS - 1);
+
+        private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 2) * HALF];
+        private long total;
+        private long max;
+
+        void record(long value) {
+            int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+            counts[(shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift)]++;
+            total++;
+            max = Math.max(max, value);
+        }
+
+        // Highest value in the bucket holding the given fraction of recorded values
+        long percentile(double fraction) {
+            long rank = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int index = 0; index < counts.length; index++) {
+                seen += counts[index];
+                if (seen >= rank) {
+                    return Math.min(max, upperBound(index));
+                }
+            }
+            return max;
+        }
+
+        String summary() {
+            StringBuilder summary = new StringBuilder();
+            for (double fraction : new double[] {0.5, 0.9, 0.99, 0.999, 0.9999}) {
+                summary.append(String.format("  p%-7s %,10d%n", fraction * 100, percentile(fraction)));
+            }
+            summary.append(String.format("  max      %,10d%n", max));
+            return summary.toString();
+        }
+
+        private static long upperBound(int index) {
+            int shift = index < 2 * HALF ? 0 : index / HALF - 1;
+            long sub = index - ((long) shift << (SUB_BUCKET_BITS - 1));
+            return ((sub + 1) << shift) - 1;
+        }
+    }
+}
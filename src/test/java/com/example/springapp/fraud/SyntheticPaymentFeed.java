@@ -0,0 +1,139 @@
+package com.example.springapp.fraud;
+
+import com.example.java21features.recordpatterns.model.Payment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Replayable synthetic payment feed: the same seed always produces the same
+// payments at the same times, so a detector run can be repeated exactly.
+//
+// Background traffic is spread over 40K cards (10,000 last-four digits x 4 card
+// types), 200K PayPal emails and 20 banks, at a fixed rate of simulated time.
+// Mixed in are injected bursts - a card making 15 payments in 5 minutes, or an
+// email making 30 payments in 30 minutes - which the default limits should catch
+// after their 10th and 20th payment respectively.
+final class SyntheticPaymentFeed {
+    private static final String[] CARD_TYPES = {"VISA", "MASTERCARD", "AMEX", "DISCOVER"};
+    private static final int LAST_FOURS = 10_000;
+    private static final int EMAILS = 200_000;
+    private static final int BANKS = 20;
+    // One burst per this many background payments
+    private static final int BURST_EVERY = 2_000;
+
+    final Payment[] payments;
+    final long[] times;
+    final boolean[] injected;
+    final long spanMillis;
+
+    private SyntheticPaymentFeed(Payment[] payments, long[] times, boolean[] injected, long spanMillis) {
+        this.payments = payments;
+        this.times = times;
+        this.injected = injected;
+        this.spanMillis = spanMillis;
+    }
+
+    int size() {
+        return payments.length;
+    }
+
+    long injectedCount() {
+        long count = 0;
+        for (boolean burst : injected) {
+            count += burst ? 1 : 0;
+        }
+        return count;
+    }
+
+    static SyntheticPaymentFeed generate(long seed, int backgroundPayments, int paymentsPerSecond) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] lastFours = new String[LAST_FOURS];
+        for (int i = 0; i < LAST_FOURS; i++) {
+            lastFours[i] = String.format("%04d", i);
+        }
+        String[] emails = new String[EMAILS];
+        for (int i = 0; i < EMAILS; i++) {
+            emails[i] = "customer" + i + "@example.com";
+        }
+        String[] banks = new String[BANKS];
+        for (int i = 0; i < BANKS; i++) {
+            banks[i] = "Bank " + i;
+        }
+
+        List<Event> events = new ArrayList<>(backgroundPayments + backgroundPayments / BURST_EVERY * 30);
+        for (int i = 0; i < backgroundPayments; i++) {
+            long time = i * 1000L / paymentsPerSecond;
+            int kind = random.nextInt(10);
+            Payment payment;
+            if (kind < 6) {
+                payment = new Payment.CreditCard("synthetic", amount(random, 4.0, 1.0), "COMPLETED",
+                    lastFours[random.nextInt(LAST_FOURS)], CARD_TYPES[random.nextInt(CARD_TYPES.length)],
+                    random.nextInt(20) == 0);
+            } else if (kind < 9) {
+                payment = new Payment.PayPal("synthetic", amount(random, 4.0, 1.0), "COMPLETED",
+                    emails[random.nextInt(EMAILS)], random.nextInt(5) == 0);
+            } else {
+                payment = new Payment.BankTransfer("synthetic", amount(random, 7.0, 1.0), "COMPLETED",
+                    banks[random.nextInt(BANKS)], "REF");
+            }
+            events.add(new Event(time, payment, false));
+
+            if (random.nextInt(BURST_EVERY) == 0) {
+                addBurst(events, random, time, lastFours, emails);
+            }
+        }
+        events.sort(Comparator.comparingLong(Event::time));
+
+        Payment[] payments = new Payment[events.size()];
+        long[] times = new long[events.size()];
+        boolean[] injected = new boolean[events.size()];
+        for (int i = 0; i < payments.length; i++) {
+            Event event = events.get(i);
+            payments[i] = event.payment();
+            times[i] = event.time();
+            injected[i] = event.injected();
+        }
+        long span = times.length == 0 ? 0 : times[times.length - 1] + 1;
+        return new SyntheticPaymentFeed(payments, times, injected, span);
+    }
+
+    private static void addBurst(List<Event> events, SplittableRandom random, long start,
+                                 String[] lastFours, String[] emails) {
+        if (random.nextBoolean()) {
+            String lastFour = lastFours[random.nextInt(LAST_FOURS)];
+            String cardType = CARD_TYPES[random.nextInt(CARD_TYPES.length)];
+            for (int i = 0; i < 15; i++) {
+                events.add(new Event(start + i * 20_000L, new Payment.CreditCard("synthetic",
+                    20 + random.nextInt(180), "COMPLETED", lastFour, cardType, false), true));
+            }
+        } else {
+            String email = emails[random.nextInt(EMAILS)];
+            for (int i = 0; i < 30; i++) {
+                events.add(new Event(start + i * 60_000L, new Payment.PayPal("synthetic",
+                    20 + random.nextInt(180), "COMPLETED", email, false), true));
+            }
+        }
+    }
+
+    // Log-normal amounts in whole cents: exp(N(mu, sigma)) dollars
+    private static double amount(SplittableRandom random, double mu, double sigma) {
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        return Math.rint(Math.exp(mu + sigma * gaussian) * 100) / 100;
+    }
+
+    private record Event(long time, Payment payment, boolean injected) {}
+
+    @Override
+    public String toString() {
+        return String.format("%,d payments over %,d simulated seconds, %,d from injected bursts",
+            payments.length, spanMillis / 1000, injectedCount());
+    }
+
+    boolean sameAs(SyntheticPaymentFeed other) {
+        return Arrays.equals(payments, other.payments) && Arrays.equals(times, other.times)
+            && Arrays.equals(injected, other.injected);
+    }
+}
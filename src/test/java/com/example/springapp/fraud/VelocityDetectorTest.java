@@ -0,0 +1,139 @@
+package com.example.springapp.fraud;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VelocityDetectorTest {
+    private static final long START = 1_700_000_000_000L;
+
+    // 3 payments or $1,000 per card in a minute of 6 ten-second buckets
+    private static VelocityDetector detector(int cardCapacity) {
+        return new VelocityDetector(
+            new VelocityLimits(Duration.ofMinutes(1), 6, 3, 100_000, cardCapacity),
+            new VelocityLimits(Duration.ofMinutes(1), 6, 3, 100_000, 64),
+            new VelocityLimits(Duration.ofMinutes(1), 6, 3, 100_000, 64));
+    }
+
+    private static Payment card(String lastFour, String cardType, double amount) {
+        return new Payment.CreditCard("cc", amount, "COMPLETED", lastFour, cardType, false);
+    }
+
+    @Test
+    public void testFlagsPaymentsOverTheCountLimit() {
+        VelocityDetector detector = detector(64);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, detector.observe(card("1234", "VISA", 10), START + i * 1000));
+        }
+        int flags = detector.observe(card("1234", "VISA", 10), START + 3000);
+        assertEquals(Set.of(VelocityDetector.Dimension.CARD), VelocityDetector.dimensions(flags));
+        assertEquals(1, detector.flagged(VelocityDetector.Dimension.CARD));
+
+        // Same digits on another network is another card
+        assertEquals(0, detector.observe(card("1234", "AMEX", 10), START + 3000));
+    }
+
+    @Test
+    public void testFlagsPaymentsOverTheAmountLimit() {
+        VelocityDetector detector = detector(64);
+        assertEquals(0, detector.observe(card("1234", "VISA", 600), START));
+        assertEquals(0, detector.observe(card("1234", "VISA", 400), START + 1000));
+        assertEquals(VelocityDetector.Dimension.CARD.flag(), detector.observe(card("1234", "VISA", 0.01), START + 2000));
+    }
+
+    @Test
+    public void testRejectsAmountsWithoutAValueInCents() {
+        VelocityDetector detector = detector(64);
+        assertThrows(IllegalArgumentException.class, () -> detector.observe(card("1234", "VISA", Double.NaN), START));
+        assertThrows(IllegalArgumentException.class,
+            () -> detector.observe(card("1234", "VISA", Double.POSITIVE_INFINITY), START));
+        // Neither was counted
+        assertEquals(0, detector.observe(card("1234", "VISA", 10), START));
+        assertEquals(0, detector.observe(card("1234", "VISA", 10), START));
+        assertEquals(0, detector.observe(card("1234", "VISA", 10), START));
+    }
+
+    @Test
+    public void testOldPaymentsSlideOutOfTheWindow() {
+        VelocityDetector detector = detector(64);
+        for (int i = 0; i < 3; i++) {
+            detector.observe(card("1234", "VISA", 10), START + i * 10_000);
+        }
+        // The first payment's bucket has left the one-minute window
+        assertEquals(0, detector.observe(card("1234", "VISA", 10), START + 60_000));
+        assertNotEquals(0, detector.observe(card("1234", "VISA", 10), START + 60_001));
+        // A long gap clears everything
+        assertEquals(0, detector.observe(card("1234", "VISA", 10), START + 3_600_000));
+    }
+
+    @Test
+    public void testKeepsDimensionsApart() {
+        VelocityDetector detector = detector(64);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, detector.observe(new Payment.PayPal("pp", 10, "COMPLETED", "a@b.com", false), START));
+            assertEquals(0, detector.observe(new Payment.BankTransfer("bt", 10, "COMPLETED", "Chase", "REF"), START));
+            assertEquals(0, detector.observe(card("1234", "VISA", 10), START));
+        }
+        assertEquals(VelocityDetector.Dimension.EMAIL.flag(),
+            detector.observe(new Payment.PayPal("pp", 10, "COMPLETED", "a@b.com", false), START));
+        assertEquals(VelocityDetector.Dimension.BANK.flag(),
+            detector.observe(new Payment.BankTransfer("bt", 10, "COMPLETED", "Chase", "REF"), START));
+    }
+
+    @Test
+    public void testLatePaymentsAreNotCounted() {
+        VelocityDetector detector = detector(64);
+        detector.observe(card("1234", "VISA", 10), START + 120_000);
+        // Out of order but inside the window still counts
+        detector.observe(card("1234", "VISA", 10), START + 100_000);
+        detector.observe(card("1234", "VISA", 10), START);
+        assertEquals(1, detector.late());
+        assertEquals(0, detector.observe(card("1234", "VISA", 10), START + 120_000));
+        assertNotEquals(0, detector.observe(card("1234", "VISA", 10), START + 120_000));
+    }
+
+    @Test
+    public void testMemoryStaysBoundedWithManyKeys() {
+        VelocityDetector detector = detector(64);
+        for (int i = 0; i < 10_000; i++) {
+            detector.observe(card(String.format("%04d", i), "VISA", 10), START + i);
+        }
+        // 10K live cards in a 64-slot table: most had to give way
+        assertTrue(detector.evictions() > 9_000);
+
+        // Once windows expire, reusing slots is not an eviction
+        long evictions = detector.evictions();
+        for (int i = 0; i < 64; i++) {
+            detector.observe(card("x" + i, "VISA", 10), START + 3_600_000 + i);
+        }
+        assertTrue(detector.evictions() - evictions < 64);
+    }
+
+    @Test
+    public void testSyntheticFeedIsReplayableAndBurstsAreCaught() {
+        SyntheticPaymentFeed feed = SyntheticPaymentFeed.generate(7, 100_000, 200);
+        assertTrue(feed.sameAs(SyntheticPaymentFeed.generate(7, 100_000, 200)));
+        assertFalse(feed.sameAs(SyntheticPaymentFeed.generate(8, 100_000, 200)));
+
+        VelocityDetector detector = VelocityDetector.withDefaults();
+        long flaggedInjected = 0;
+        long flaggedBackground = 0;
+        for (int i = 0; i < feed.size(); i++) {
+            if (detector.observe(feed.payments[i], feed.times[i]) != 0) {
+                if (feed.injected[i]) {
+                    flaggedInjected++;
+                } else {
+                    flaggedBackground++;
+                }
+            }
+        }
+        // Card bursts are flagged from the 11th of 15 payments, email bursts from the 21st of 30
+        assertTrue(feed.injectedCount() > 0);
+        assertTrue(flaggedInjected >= feed.injectedCount() / 4, flaggedInjected + " of " + feed.injectedCount());
+        assertTrue(flaggedBackground < feed.size() / 1000, flaggedBackground + " background payments flagged");
+    }
+}
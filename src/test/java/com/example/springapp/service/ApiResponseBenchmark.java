@@ -0,0 +1,51 @@
+package com.example.springapp.service;
+
+import com.example.java21features.stringtemplates.templateprocessors.JsonTemplateProcessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The API-response path: the previous JsonTemplate (replaceAll per placeholder,
+// then readTree to validate every response) versus generateApiResponse, which
+// renders into a template validated once, and the same with the tree requested
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+public class ApiResponseBenchmark {
+    // The previous renderer quoted string values itself, so its placeholders are unquoted
+    private static final String LEGACY_TEMPLATE = "{\"status\": {0}, \"message\": {1}, \"data\": {2}, \"timestamp\": {3}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TemplateService templateService = new TemplateService();
+    private final Map<String, Object> data = Map.of("orderId", "ORD-1042", "items", 3);
+
+    @Benchmark
+    public ObjectNode legacy() throws Exception {
+        Object[] values = {"ok", "Order accepted for processing", data.toString(), System.currentTimeMillis()};
+        String result = LEGACY_TEMPLATE;
+        for (int i = 0; i < values.length; i++) {
+            String placeholder = "\\{" + i + "\\}";
+            String value = values[i] instanceof String s ? "\"" + s.replace("\"", "\\\"") + "\"" : values[i].toString();
+            result = result.replaceAll(placeholder, value);
+        }
+        return (ObjectNode) objectMapper.readTree(result);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return templateService.generateApiResponse("ok", "Order accepted for processing", data);
+    }
+
+    @Benchmark
+    public ObjectNode compiledWithTree() {
+        return JsonTemplateProcessor.of(
+            "{\"status\": \"{0}\", \"message\": \"{1}\", \"data\": {2}, \"timestamp\": {3}}",
+            "ok", "Order accepted for processing", data.toString(), System.currentTimeMillis()).getJsonNode();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Fees for a mixed batch of 10K payments: the switch RecordPatternsDemo.calculateFees
+// hard-codes versus the compiled FeeSchedule behind FeeService
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+public class FeeBenchmark {
+    private static final int PAYMENTS = 10_000;
+
+    private final FeeService feeService = new FeeService("", Duration.ZERO);
+    private List<Payment> payments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        payments = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            double amount = random.nextLong(1_000_000) / 100.0;
+            boolean flag = random.nextBoolean();
+            payments.add(switch (random.nextInt(3)) {
+                case 0 -> new Payment.CreditCard("cc", amount, "COMPLETED", "1234", "VISA", flag);
+                case 1 -> new Payment.PayPal("pp", amount, "COMPLETED", "a@b.com", flag);
+                default -> new Payment.BankTransfer("bt", amount, "COMPLETED", "Chase", "REF");
+            });
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAYMENTS)
+    public double[] handWrittenSwitch() {
+        double[] fees = new double[payments.size()];
+        int i = 0;
+        for (Payment payment : payments) {
+            fees[i++] = switch (payment) {
+                case Payment.CreditCard(var id, var amount, var status,
+                                       var lastFour, var cardType, var isInternational) ->
+                    isInternational ? amount * 0.03 : amount * 0.02;
+                case Payment.PayPal(var id, var amount, var status,
+                                   var email, var isBusiness) ->
+                    isBusiness ? amount * 0.029 : amount * 0.034;
+                case Payment.BankTransfer(var id, var amount, var status,
+                                         var bank, var reference) ->
+                    5.00;
+            };
+        }
+        return fees;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAYMENTS)
+    public double[] compiledSchedule() {
+        return feeService.feesFor(payments);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeeServiceTest {
+
+    private static final List<Payment> PAYMENTS = List.of(
+        new Payment.CreditCard("cc-1", 100.0, "COMPLETED", "1234", "VISA", false),
+        new Payment.CreditCard("cc-2", 100.0, "COMPLETED", "5678", "AMEX", true),
+        new Payment.PayPal("pp-1", 100.0, "COMPLETED", "a@b.com", false),
+        new Payment.PayPal("pp-2", 100.0, "COMPLETED", "biz@b.com", true),
+        new Payment.BankTransfer("bt-1", 2500.0, "PENDING", "Chase", "REF-1"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDefaultsMatchTheHardCodedFees() {
+        double[] fees = FeeSchedule.defaults().feesFor(PAYMENTS);
+        assertArrayEquals(new double[] {2.0, 3.0, 3.4, 2.9, 5.0}, fees, 1e-9);
+    }
+
+    @Test
+    public void testParsesRatesFlatFeesAndBoth() {
+        FeeSchedule schedule = FeeSchedule.parse(Map.of(
+            "credit-card.domestic", "1.5% + 0.30",
+            "credit-card.international", "0.25 + 4%",
+            "paypal.personal", "0",
+            "paypal.business", " 2.5 % ",
+            "bank-transfer", "7.50"));
+
+        assertArrayEquals(new double[] {1.8, 4.25, 0.0, 2.5, 7.5}, schedule.feesFor(PAYMENTS), 1e-9);
+    }
+
+    @Test
+    public void testRejectsBrokenRuleTables() {
+        Map<String, String> valid = Map.of(
+            "credit-card.domestic", "2%", "credit-card.international", "3%",
+            "paypal.personal", "3.4%", "paypal.business", "2.9%", "bank-transfer", "5");
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.parse(with(valid, "bank-transfer", null)));
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.parse(with(valid, "crypto", "1%")));
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.parse(with(valid, "bank-transfer", "five")));
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.parse(with(valid, "bank-transfer", "1% + 2%")));
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.parse(with(valid, "bank-transfer", "-1")));
+    }
+
+    @Test
+    public void testReloadsChangedScheduleAndKeepsOldOneOnError() throws IOException {
+        Path file = directory.resolve("fees.properties");
+        writeSchedule(file, "5.00", 1);
+        try (FeeService service = new FeeService(file.toString(), Duration.ZERO)) {
+            assertEquals(5.0, service.feeFor(PAYMENTS.get(4)));
+            assertFalse(service.reload());
+
+            writeSchedule(file, "1% + 1.00", 2);
+            assertTrue(service.reload());
+            assertEquals(26.0, service.feeFor(PAYMENTS.get(4)), 1e-9);
+
+            writeSchedule(file, "free", 3);
+            assertThrows(IllegalArgumentException.class, service::reload);
+            assertEquals(26.0, service.feeFor(PAYMENTS.get(4)), 1e-9);
+            assertThrows(IllegalArgumentException.class, service::reload);
+
+            // Fixed without the timestamp moving, as when a save lands within its resolution
+            writeSchedule(file, "2.00", 3);
+            assertTrue(service.reload());
+            assertEquals(2.0, service.feeFor(PAYMENTS.get(4)), 1e-9);
+            assertFalse(service.reload());
+        }
+    }
+
+    @Test
+    public void testDefaultsWithoutAScheduleFile() throws IOException {
+        try (FeeService service = new FeeService("", Duration.ofSeconds(10))) {
+            assertSame(FeeSchedule.defaults(), service.schedule());
+            assertFalse(service.reload());
+        }
+    }
+
+    private static Map<String, String> with(Map<String, String> rules, String rule, String value) {
+        Map<String, String> changed = new HashMap<>(rules);
+        if (value == null) {
+            changed.remove(rule);
+        } else {
+            changed.put(rule, value);
+        }
+        return changed;
+    }
+
+    // Explicit modification times, as writes within one timestamp tick look unchanged
+    private static void writeSchedule(Path file, String bankTransferFee, int version) throws IOException {
+        Files.writeString(file, """
+            credit-card.domestic = 2%
+            credit-card.international = 3%
+            paypal.personal = 3.4%
+            paypal.business = 2.9%
+            bank-transfer = """ + bankTransferFee + "\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(version)));
+    }
+}
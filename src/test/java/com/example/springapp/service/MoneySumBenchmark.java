@@ -0,0 +1,79 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.audit.AuditSink;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Money totals over 1M payments: the original double sum with a try/catch per
+// element, calculateSafeTotal on MoneySum, and the same two sums over a
+// primitive amount column
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx2g"})
+public class MoneySumBenchmark {
+    private static final int PAYMENTS = 1_000_000;
+
+    private final LoggingService loggingService = new LoggingService(AuditSink.stdout());
+    private List<Payment> payments;
+    private double[] amounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        payments = new ArrayList<>(PAYMENTS);
+        amounts = new double[PAYMENTS];
+        for (int i = 0; i < PAYMENTS; i++) {
+            amounts[i] = random.nextLong(1_000_000) / 100.0;
+            payments.add(new Payment.CreditCard("cc", amounts[i], "COMPLETED", "1234", "VISA", false));
+        }
+    }
+
+    // calculateSafeTotal before MoneySum
+    @Benchmark
+    @OperationsPerInvocation(PAYMENTS)
+    public double paymentsDoubleWithTryCatch() {
+        double total = 0;
+        for (Payment payment : payments) {
+            try {
+                total += payment.amount();
+            } catch (Exception e) {
+                System.out.println("Skipping invalid payment");
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAYMENTS)
+    public double paymentsMoneySum() {
+        return loggingService.calculateSafeTotal(payments);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAYMENTS)
+    public double columnDouble() {
+        double total = 0;
+        for (double amount : amounts) {
+            total += amount;
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAYMENTS)
+    public long columnCents() {
+        long cents = 0;
+        for (double amount : amounts) {
+            cents += MoneySum.toCents(amount);
+        }
+        return cents;
+    }
+}
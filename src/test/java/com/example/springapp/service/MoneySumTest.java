@@ -0,0 +1,91 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.audit.AuditSink;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneySumTest {
+
+    private static final int HUNDRED_MILLION = 100_000_000;
+
+    @Test
+    public void testHundredMillionCentsStayExact() {
+        MoneySum sum = new MoneySum();
+        double naive = 0;
+        for (int i = 0; i < HUNDRED_MILLION; i++) {
+            sum.add(19.99);
+            naive += 19.99;
+        }
+        assertEquals(new BigDecimal("1999000000.00"), sum.toBigDecimal());
+        assertEquals(1_999_000_000.0, sum.total());
+        // The double running sum is off by most of a dollar
+        assertTrue(Math.abs(naive - 1_999_000_000.0) > 0.5, "naive sum " + naive);
+    }
+
+    @Test
+    public void testHundredMillionRandomAmountsMatchIntegerCents() {
+        SplittableRandom random = new SplittableRandom(7);
+        MoneySum sum = new MoneySum();
+        long expectedCents = 0;
+        for (int i = 0; i < HUNDRED_MILLION; i++) {
+            // Up to $100,000.00 each, so the total passes the exact range of a double sum of dollars
+            long cents = random.nextLong(10_000_000);
+            expectedCents += cents;
+            sum.add(cents / 100.0);
+        }
+        assertEquals(expectedCents, sum.cents());
+    }
+
+    @Test
+    public void testRoundsEachAmountToTheNearestCent() {
+        assertEquals(29, MoneySum.toCents(0.29));
+        assertEquals(-1005, MoneySum.toCents(-10.05));
+        assertEquals(123_456_789_012L, MoneySum.toCents(1_234_567_890.12));
+    }
+
+    @Test
+    public void testRejectsAmountsWithoutAValueInCents() {
+        assertThrows(IllegalArgumentException.class, () -> MoneySum.toCents(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> MoneySum.toCents(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> MoneySum.toCents(Double.NEGATIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> MoneySum.toCents(1e17));
+        assertEquals(-(1L << 62), MoneySum.toCents(-0x1p62 / 100.0));
+
+        MoneySum sum = new MoneySum();
+        sum.add(9e16);
+        assertThrows(ArithmeticException.class, () -> sum.add(9e16));
+        assertEquals(9_000_000_000_000_000_000L, sum.cents());
+    }
+
+    @Test
+    public void testSafeTotalSkipsInvalidPayments() {
+        Payment[] payments = {
+            new Payment.CreditCard("cc", 0.10, "COMPLETED", "1234", "VISA", false),
+            null,
+            new Payment.PayPal("pp", Double.NaN, "COMPLETED", "a@b.com", false),
+            new Payment.BankTransfer("bt", 0.20, "COMPLETED", "Chase", "REF")
+        };
+        // 0.1 + 0.2 is 0.30000000000000004 as doubles
+        assertEquals(0.30, new LoggingService(AuditSink.stdout()).calculateSafeTotal(Arrays.asList(payments)));
+    }
+
+    @Test
+    public void testSafeTotalSkipsAmountsOutsideTheCentsRange() {
+        List<Payment> payments = List.of(
+            new Payment.CreditCard("cc", 1e17, "COMPLETED", "1234", "VISA", false),
+            new Payment.PayPal("pp", 9e16, "COMPLETED", "a@b.com", false),
+            new Payment.PayPal("pp", 9e16, "COMPLETED", "a@b.com", false),
+            new Payment.BankTransfer("bt", 0.25, "COMPLETED", "Chase", "REF"));
+        // The first has no value in cents and the second 9e16 would overflow the total
+        assertEquals(9e16 + 0.25, new LoggingService(AuditSink.stdout()).calculateSafeTotal(payments));
+        assertFalse(MoneySum.isRepresentable(1e17));
+        assertTrue(MoneySum.isRepresentable(9e16));
+    }
+}
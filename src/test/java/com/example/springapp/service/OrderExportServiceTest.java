@@ -0,0 +1,43 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.store.ConcurrentOrderStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderExportServiceTest {
+
+    @Test
+    public void testWritesOneJsonObjectPerLine() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        OrderService orderService = new OrderService(new ConcurrentOrderStore());
+        for (int i = 0; i < 2_500; i++) {
+            orderService.createOrder(new Order(null, "Customer \"" + i + "\"", 1.5, LocalDateTime.now(), "PENDING"));
+        }
+        OrderExportService exportService = new OrderExportService(orderService, objectMapper);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.writeNdjson(out);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(2_504, written);
+        assertEquals(2_504, lines.size());
+        assertTrue(ndjson.endsWith("\n"));
+        for (int i = 0; i < lines.size(); i++) {
+            Order order = objectMapper.readValue(lines.get(i), Order.class);
+            assertEquals(i + 1, order.getId());
+        }
+        assertEquals("Customer \"0\"", objectMapper.readValue(lines.get(4), Order.class).getCustomerName());
+    }
+}
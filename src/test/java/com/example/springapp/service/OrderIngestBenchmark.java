@@ -0,0 +1,53 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.store.ConcurrentOrderStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Orders ingested per second: one createOrder call per order versus createOrders batches
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx3g"})
+public class OrderIngestBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int batchSize;
+
+    private OrderService service;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final Double amount = 10.0;
+
+    // Fresh service per iteration so the heap does not fill up across iterations
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new OrderService(new ConcurrentOrderStore());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10_000)
+    public void singleCreates() {
+        for (int i = 0; i < 10_000; i++) {
+            service.createOrder(new Order(null, "Customer", amount, createdAt, "PENDING"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10_000)
+    public void batchCreates() {
+        for (int done = 0; done < 10_000; done += batchSize) {
+            List<Order> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                batch.add(new Order(null, "Customer", amount, createdAt, "PENDING"));
+            }
+            service.createOrders(batch);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.store.ConcurrentOrderStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPaginationMetadata() {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+        for (int i = 0; i < 21; i++) {
+            service.createOrder(new Order(null, "Customer " + i, 10.0, LocalDateTime.now(), "PENDING"));
+        }
+
+        Map<String, Object> response = service.getOrdersWithPagination(3, 10);
+        List<Order> data = (List<Order>) response.get("data");
+
+        // 4 seeded orders + 21 created
+        assertEquals(25, response.get("totalItems"));
+        assertEquals(3, response.get("totalPages"));
+        assertEquals(List.of(21L, 22L, 23L, 24L, 25L), data.stream().map(Order::getId).toList());
+        assertEquals(1L, response.get("firstItemId"));
+        assertEquals(25L, response.get("lastItemId"));
+        assertEquals(true, response.get("hasPrevious"));
+        assertEquals(false, response.get("hasNext"));
+    }
+
+    @Test
+    public void testFailedCreateDoesNotHoldBackLaterOrders() {
+        AtomicBoolean failing = new AtomicBoolean();
+        OrderService service = new OrderService(new ConcurrentOrderStore() {
+            @Override
+            public void put(Order order) {
+                if (failing.get()) {
+                    throw new IllegalStateException("Store unavailable");
+                }
+                super.put(order);
+            }
+
+            @Override
+            public void putAll(List<Order> batch) {
+                if (failing.get()) {
+                    throw new IllegalStateException("Store unavailable");
+                }
+                super.putAll(batch);
+            }
+        });
+
+        failing.set(true);
+        assertThrows(IllegalStateException.class,
+            () -> service.createOrder(new Order(null, "Eve", 10.0, LocalDateTime.now(), "PENDING")));
+        assertThrows(IllegalStateException.class, () -> service.createOrders(List.of(
+            new Order(null, "Frank", 10.0, LocalDateTime.now(), "PENDING"),
+            new Order(null, "Grace", 10.0, LocalDateTime.now(), "PENDING"))));
+        failing.set(false);
+        Order created = service.createOrder(new Order(null, "Heidi", 10.0, LocalDateTime.now(), "PENDING"));
+
+        // Ids 5-7 were given up, so order 8 is visible right away
+        assertEquals(8L, created.getId());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 8L), service.getAllOrders().stream().map(Order::getId).toList());
+        assertEquals(5, service.streamOrders().count());
+        assertEquals(8L, service.getOrdersWithPagination(1, 10).get("lastItemId"));
+    }
+
+    @Test
+    public void testIdsContinuePastAbandonedIdsOfAnExistingStore() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        store.put(new Order(1L, "Alice", 10.0, LocalDateTime.now(), "PENDING"));
+        store.abandon(2L);
+
+        OrderService service = new OrderService(store);
+
+        assertEquals(3L, service.createOrder(new Order(null, "Bob", 10.0, LocalDateTime.now(), "PENDING")).getId());
+        assertEquals(2, service.getAllOrders().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPageBeyondEndIsEmpty() {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+
+        Map<String, Object> response = service.getOrdersWithPagination(5, 10);
+
+        assertTrue(((List<Order>) response.get("data")).isEmpty());
+        assertEquals(4, response.get("totalItems"));
+        assertEquals(false, response.get("hasNext"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCursorPaginationIsStableUnderInserts() {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+
+        Map<String, Object> first = service.getOrdersAfter(null, 3);
+        assertEquals(List.of(1L, 2L, 3L), ((List<Order>) first.get("data")).stream().map(Order::getId).toList());
+        assertEquals(true, first.get("hasMore"));
+
+        // Orders created between calls only ever appear after the cursor
+        service.createOrder(new Order(null, "Eve", 20.0, LocalDateTime.now(), "PENDING"));
+
+        Map<String, Object> second = service.getOrdersAfter((String) first.get("nextCursor"), 3);
+        assertEquals(List.of(4L, 5L), ((List<Order>) second.get("data")).stream().map(Order::getId).toList());
+        assertEquals(false, second.get("hasMore"));
+
+        Map<String, Object> drained = service.getOrdersAfter((String) second.get("nextCursor"), 3);
+        assertTrue(((List<Order>) drained.get("data")).isEmpty());
+        assertEquals(second.get("nextCursor"), drained.get("nextCursor"));
+    }
+
+    @Test
+    public void testRejectsMalformedCursor() {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+
+        assertThrows(IllegalArgumentException.class, () -> service.getOrdersAfter("not-a-cursor", 3));
+        assertEquals(42L, OrderCursor.decode(OrderCursor.encode(42L)));
+    }
+
+    @Test
+    public void testBatchCreateReservesContiguousIdsAndReportsRejects() {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+
+        OrderBatchResult result = service.createOrders(Arrays.asList(
+            new Order(null, "Eve", 20.0, LocalDateTime.now(), "PENDING"),
+            new Order(null, " ", 20.0, LocalDateTime.now(), "PENDING"),
+            null,
+            new Order(null, "Frank", -1.0, LocalDateTime.now(), "PENDING"),
+            new Order(null, "Grace", 30.0, LocalDateTime.now(), "PENDING")
+        ));
+
+        assertEquals(2, result.created());
+        assertEquals(3, result.rejected());
+        assertEquals(5L, result.items().get(0).id());
+        assertEquals(6L, result.items().get(4).id());
+        assertNotNull(result.items().get(1).error());
+        assertNotNull(result.items().get(2).error());
+        assertNotNull(result.items().get(3).error());
+        assertEquals(4, result.items().get(4).index());
+
+        // Rejected items do not consume ids, so the sequence stays gap-free
+        assertEquals(6, service.getAllOrders().size());
+        assertEquals("Grace", service.getOrderById(6L).getCustomerName());
+        assertEquals(7L, service.createOrder(
+            new Order(null, "Heidi", 5.0, LocalDateTime.now(), "PENDING")).getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStatusUpdateFollowsTransitionsAndVersions() {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+        Order pending = service.getOrderById(2L);
+        assertEquals("PENDING", pending.getStatus());
+        assertEquals(0, pending.getVersion());
+
+        OrderStatusUpdate processing = service.updateStatus(2L, "PROCESSING", 0L);
+        assertEquals(OrderStatusUpdate.Outcome.UPDATED, processing.outcome());
+        assertEquals(1, processing.order().getVersion());
+        assertEquals("PROCESSING", service.getOrderById(2L).getStatus());
+        // The earlier read is a snapshot; stored orders are replaced, not mutated
+        assertEquals("PENDING", pending.getStatus());
+
+        OrderStatusUpdate stale = service.updateStatus(2L, "COMPLETED", 0L);
+        assertEquals(OrderStatusUpdate.Outcome.CONFLICT, stale.outcome());
+        assertEquals(1, stale.order().getVersion());
+
+        OrderStatusUpdate backwards = service.updateStatus(2L, "PENDING", null);
+        assertEquals(OrderStatusUpdate.Outcome.CONFLICT, backwards.outcome());
+
+        assertEquals(OrderStatusUpdate.Outcome.UPDATED, service.updateStatus(2L, "COMPLETED", null).outcome());
+        assertEquals(OrderStatusUpdate.Outcome.NOT_FOUND, service.updateStatus(99L, "COMPLETED", null).outcome());
+        assertThrows(IllegalArgumentException.class, () -> service.updateStatus(2L, "SHIPPED", null));
+
+        // Status lookups follow the update
+        List<Order> completed = (List<Order>) service.getOrdersByStatus("COMPLETED", null, 10).get("data");
+        assertEquals(List.of(1L, 2L, 3L), completed.stream().map(Order::getId).toList());
+        assertTrue(((List<Order>) service.getOrdersByStatus("PENDING", null, 10).get("data")).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentClaimsHaveOneWinner() throws Exception {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OrderStatusUpdate>> claims = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            claims.add(pool.submit(() -> {
+                start.await();
+                return service.updateStatus(2L, "PROCESSING", null);
+            }));
+        }
+        start.countDown();
+
+        int winners = 0;
+        for (Future<OrderStatusUpdate> claim : claims) {
+            if (claim.get().outcome() == OrderStatusUpdate.Outcome.UPDATED) {
+                winners++;
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, winners);
+        assertEquals(1, service.getOrderById(2L).getVersion());
+    }
+}
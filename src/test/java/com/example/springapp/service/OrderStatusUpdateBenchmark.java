@@ -0,0 +1,94 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.store.ConcurrentOrderStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Status updates per second from 32 workers, each moving orders
+// PENDING -> PROCESSING -> COMPLETED, with one op being one transition attempt:
+//   claimNext*      workers take disjoint orders from a shared queue position
+//   raceForSame*    every worker walks the same orders, so most attempts lose
+// The *GlobalLock variants run the same updates behind one lock for comparison.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx4g"})
+public class OrderStatusUpdateBenchmark {
+    // Enough pending orders that no iteration runs out of work
+    private static final int ORDERS = 3_000_000;
+
+    private OrderService service;
+    private final AtomicLong nextClaim = new AtomicLong();
+    private final ReentrantLock globalLock = new ReentrantLock();
+
+    // Fresh pending orders per iteration, as every order only moves forward
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new OrderService(new ConcurrentOrderStore());
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (int done = 0; done < ORDERS; done += 10_000) {
+            List<Order> batch = new ArrayList<>(10_000);
+            for (int i = 0; i < 10_000; i++) {
+                batch.add(new Order(null, "Customer " + (i % 1000), 10.0, createdAt, "PENDING"));
+            }
+            service.createOrders(batch);
+        }
+        // Skip the four sample orders
+        nextClaim.set(2 * 5L);
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+        long step;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            step = 2 * 5L;
+        }
+    }
+
+    @Benchmark
+    public OrderStatusUpdate claimNext() {
+        return transition(nextClaim.getAndIncrement());
+    }
+
+    @Benchmark
+    public OrderStatusUpdate claimNextGlobalLock() {
+        globalLock.lock();
+        try {
+            return transition(nextClaim.getAndIncrement());
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    @Benchmark
+    public OrderStatusUpdate raceForSame(Worker worker) {
+        return transition(worker.step++);
+    }
+
+    @Benchmark
+    public OrderStatusUpdate raceForSameGlobalLock(Worker worker) {
+        globalLock.lock();
+        try {
+            return transition(worker.step++);
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    // Even steps claim order step / 2, odd steps complete it
+    private OrderStatusUpdate transition(long step) {
+        return service.updateStatus(step / 2, step % 2 == 0 ? "PROCESSING" : "COMPLETED", null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Payment batch processing: the original sequential sum loop versus the
+// fork-join engine, which also computes per-type count/sum/min/max
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx4g"})
+public class PaymentBatchBenchmark {
+
+    @Param({"1000", "1000000", "10000000"})
+    private int paymentCount;
+
+    private List<Payment> payments;
+    private final PaymentBatchEngine engine = new PaymentBatchEngine();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        payments = new ArrayList<>(paymentCount);
+        for (int i = 0; i < paymentCount; i++) {
+            double amount = Math.round(random.nextDouble() * 500_000) / 100.0;
+            payments.add(switch (random.nextInt(3)) {
+                case 0 -> new Payment.CreditCard("cc", amount, "COMPLETED", "1234", "VISA", false);
+                case 1 -> new Payment.PayPal("pp", amount, "COMPLETED", "a@b.com", false);
+                default -> new Payment.BankTransfer("bt", amount, "COMPLETED", "Chase", "REF");
+            });
+        }
+    }
+
+    // The loop processPaymentBatch used before the engine
+    @Benchmark
+    public double sequentialLoop() {
+        int processedCount = 0;
+        double totalAmount = 0;
+        for (Payment payment : payments) {
+            processedCount++;
+            totalAmount += payment.amount();
+        }
+        return totalAmount + processedCount;
+    }
+
+    @Benchmark
+    public PaymentBatchSummary engine() {
+        return engine.process(payments);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentBatchEngineTest {
+
+    @Test
+    public void testAggregatesPerType() {
+        List<Payment> payments = List.of(
+            new Payment.CreditCard("cc-1", 120.0, "COMPLETED", "1234", "VISA", false),
+            new Payment.CreditCard("cc-2", 30.0, "COMPLETED", "5678", "AMEX", true),
+            new Payment.BankTransfer("bt-1", 5000.0, "PENDING", "Chase", "REF-1"));
+
+        PaymentBatchSummary summary = new PaymentBatchEngine().process(payments);
+
+        assertEquals(3, summary.count());
+        assertEquals(5150.0, summary.total());
+        assertEquals(List.of(
+            new PaymentBatchSummary.TypeSummary("CreditCard", 2, 15_000, 30.0, 120.0),
+            new PaymentBatchSummary.TypeSummary("BankTransfer", 1, 500_000, 5000.0, 5000.0)
+        ), summary.byType());
+    }
+
+    @Test
+    public void testParallelSplitMatchesSequentialResult() {
+        Random random = new Random(42);
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            double amount = Math.round(random.nextDouble() * 500_000) / 100.0;
+            payments.add(switch (i % 3) {
+                case 0 -> new Payment.CreditCard("cc", amount, "COMPLETED", "1234", "VISA", false);
+                case 1 -> new Payment.PayPal("pp", amount, "COMPLETED", "a@b.com", false);
+                default -> new Payment.BankTransfer("bt", amount, "COMPLETED", "Chase", "REF");
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PaymentBatchSummary parallel = new PaymentBatchEngine(pool).process(payments);
+            // A linked list is never split, so it gives the sequential answer
+            PaymentBatchSummary sequential = new PaymentBatchEngine(pool).process(new LinkedList<>(payments));
+
+            // Sums are whole cents, so the split cannot change them
+            assertEquals(sequential.count(), parallel.count());
+            assertEquals(sequential.totalCents(), parallel.totalCents());
+            assertEquals(sequential.byType(), parallel.byType());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectsNonFiniteAmounts() {
+        List<Payment> payments = List.of(
+            new Payment.CreditCard("cc-1", 120.0, "COMPLETED", "1234", "VISA", false),
+            new Payment.PayPal("pp-1", Double.NaN, "COMPLETED", "a@b.com", false));
+
+        assertThrows(IllegalArgumentException.class, () -> new PaymentBatchEngine().process(payments));
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        PaymentBatchSummary summary = new PaymentBatchEngine().process(List.of());
+        assertEquals(0, summary.count());
+        assertTrue(summary.byType().isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.audit.AuditSink;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Payment messages with String.format (the previous implementation, inlined)
+// versus the compiled formats now behind processPayment and getPaymentSummary.
+// Run with -prof gc for the allocation per message (gc.alloc.rate.norm).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview"})
+public class PaymentFormattingBenchmark {
+    private final PaymentService paymentService = new PaymentService(65_536);
+    private final LoggingService loggingService = new LoggingService(AuditSink.stdout());
+    private final Payment payment = new Payment.CreditCard("cc-1001", 1234.56, "COMPLETED", "4242", "VISA", false);
+
+    @Benchmark
+    public String processPaymentStringFormat() {
+        return switch (payment) {
+            case Payment.CreditCard(var id, var amount, var status,
+                                  var lastFour, var cardType, var isInternational) ->
+                String.format("Processed CC %s: $%.2f via %s", id, amount, cardType);
+            case Payment.PayPal(var id, var amount, var status,
+                              var email, var isBusiness) ->
+                String.format("Processed PayPal %s: $%.2f from %s", id, amount, email);
+            case Payment.BankTransfer(var id, var amount, var status,
+                                    var bank, var reference) ->
+                String.format("Processing bank transfer %s: $%.2f", id, amount);
+        };
+    }
+
+    @Benchmark
+    public String processPaymentCompiled() {
+        return paymentService.processPayment(payment);
+    }
+
+    @Benchmark
+    public String paymentSummaryStringFormat() {
+        return switch (payment) {
+            case Payment.CreditCard(var id, var amount, var status,
+                                  var lastFour, var cardType, var isInternational) ->
+                String.format("Credit Card: %s ending %s", cardType, lastFour);
+            case Payment.PayPal(var id, var amount, var status,
+                               var email, var isBusiness) ->
+                String.format("PayPal: %s", isBusiness ? "Business" : "Personal");
+            case Payment.BankTransfer(var id, var amount, var status,
+                                     var bank, var reference) ->
+                String.format("Bank Transfer: %s", bank);
+        };
+    }
+
+    @Benchmark
+    public String paymentSummaryCompiled() {
+        return loggingService.getPaymentSummary(payment);
+    }
+}
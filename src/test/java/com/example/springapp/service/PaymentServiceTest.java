@@ -0,0 +1,41 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.example.springapp.audit.AuditSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentServiceTest {
+    private final PaymentService paymentService = new PaymentService(65_536);
+    private final LoggingService loggingService = new LoggingService(AuditSink.stdout());
+
+    @Test
+    public void testMessagesMatchTheFormatStrings() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 10_000; i++) {
+            double amount = random.nextLong(0, 100_000_000) / 1000.0;
+            boolean flag = random.nextBoolean();
+            Payment card = new Payment.CreditCard("cc-" + i, amount, "COMPLETED", "1234", "VISA", flag);
+            Payment payPal = new Payment.PayPal("pp-" + i, amount, "COMPLETED", "a@b.com", flag);
+            Payment transfer = new Payment.BankTransfer("bt-" + i, amount, "PENDING", "Chase", "REF");
+
+            assertEquals(String.format(Locale.US, "Processed CC %s: $%.2f via %s", "cc-" + i, amount, "VISA"),
+                paymentService.processPayment(card));
+            assertEquals(String.format(Locale.US, "Processed PayPal %s: $%.2f from %s", "pp-" + i, amount, "a@b.com"),
+                paymentService.processPayment(payPal));
+            assertEquals(String.format(Locale.US, "Processing bank transfer %s: $%.2f", "bt-" + i, amount),
+                paymentService.processPayment(transfer));
+        }
+
+        assertEquals("Credit Card: VISA ending 1234", loggingService.getPaymentSummary(
+            new Payment.CreditCard("cc", 1, "COMPLETED", "1234", "VISA", false)));
+        assertEquals("PayPal: Business", loggingService.getPaymentSummary(
+            new Payment.PayPal("pp", 1, "COMPLETED", "a@b.com", true)));
+        assertEquals("Bank Transfer: Chase", loggingService.getPaymentSummary(
+            new Payment.BankTransfer("bt", 1, "COMPLETED", "Chase", "REF")));
+    }
+}
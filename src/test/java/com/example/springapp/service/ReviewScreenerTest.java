@@ -0,0 +1,102 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReviewScreenerTest {
+    private final PaymentService paymentService = new PaymentService(65_536);
+
+    private static List<Payment> randomPayments(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double amount = random.nextInt(400_000) / 100.0;
+            boolean flag = random.nextInt(4) == 0;
+            payments.add(switch (random.nextInt(3)) {
+                case 0 -> new Payment.CreditCard("cc", amount, "COMPLETED", "1234", "VISA", flag);
+                case 1 -> new Payment.PayPal("pp", amount, "COMPLETED", "a@b.com", flag);
+                default -> new Payment.BankTransfer("bt", amount, "COMPLETED", "Chase", "REF");
+            });
+        }
+        return payments;
+    }
+
+    private BitSet oneByOne(List<Payment> payments) {
+        BitSet expected = new BitSet(payments.size());
+        for (int i = 0; i < payments.size(); i++) {
+            if (paymentService.needsReview(payments.get(i))) {
+                expected.set(i);
+            }
+        }
+        return expected;
+    }
+
+    @Test
+    public void testMatchesNeedsReviewSequentially() {
+        for (int size : new int[] {0, 1, 63, 64, 65, 4095, 4097, 50_000}) {
+            List<Payment> payments = randomPayments(size);
+            assertEquals(oneByOne(payments), paymentService.screenForReview(payments), "size " + size);
+        }
+    }
+
+    @Test
+    public void testMatchesNeedsReviewInParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ReviewScreener screener = new ReviewScreener(pool, 1_000);
+            for (int size : new int[] {1_000, 100_003, 1_000_000}) {
+                List<Payment> payments = randomPayments(size);
+                assertEquals(oneByOne(payments), screener.screen(payments), "size " + size);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testScreensListsWithoutRandomAccess() {
+        List<Payment> payments = randomPayments(10_000);
+        assertEquals(oneByOne(payments), paymentService.screenForReview(new LinkedList<>(payments)));
+    }
+
+    @Test
+    public void testRejectsNullPayments() {
+        List<Payment> payments = new ArrayList<>(randomPayments(10));
+        payments.set(5, null);
+        assertThrows(IllegalArgumentException.class, () -> paymentService.screenForReview(payments));
+    }
+
+    @Test
+    public void testResultFromJsonRequest() throws Exception {
+        String json = """
+            [{"type": "CreditCard", "id": "cc-1", "amount": 1500.0, "status": "COMPLETED",
+              "lastFour": "1234", "cardType": "VISA", "isInternational": false},
+             {"type": "PayPal", "id": "pp-1", "amount": 100.0, "status": "COMPLETED",
+              "email": "a@b.com", "isBusiness": false},
+             {"type": "BankTransfer", "id": "bt-1", "amount": 5000.0, "status": "PENDING",
+              "bank": "Chase", "reference": "REF-1"}]
+            """;
+        List<Payment> payments = new ObjectMapper().readValue(json, new TypeReference<>() {});
+        assertInstanceOf(Payment.PayPal.class, payments.get(1));
+
+        ReviewScreeningResult result = ReviewScreeningResult.of(payments.size(), paymentService.screenForReview(payments));
+        assertEquals(3, result.screened());
+        assertEquals(2, result.flagged());
+        // Bits 0 and 2
+        assertArrayEquals(new byte[] {0b101}, Base64.getDecoder().decode(result.flags()));
+        assertEquals(BitSet.valueOf(Base64.getDecoder().decode(result.flags())), oneByOne(payments));
+        assertEquals("", ReviewScreeningResult.of(0, new BitSet()).flags());
+    }
+}
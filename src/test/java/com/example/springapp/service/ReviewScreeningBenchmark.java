@@ -0,0 +1,65 @@
+package com.example.springapp.service;
+
+import com.example.java21features.recordpatterns.model.Payment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Bulk review screening of a shuffled mix of payment types: needsReview called
+// once per payment (what callers loop over today) versus ReviewScreener,
+// sequential and above its parallel threshold
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx2g"})
+public class ReviewScreeningBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int paymentCount;
+
+    private List<Payment> payments;
+    private final PaymentService paymentService = new PaymentService(Integer.MAX_VALUE);
+    private final ReviewScreener parallelScreener = new ReviewScreener(65_536);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        payments = new ArrayList<>(paymentCount);
+        for (int i = 0; i < paymentCount; i++) {
+            double amount = random.nextInt(400_000) / 100.0;
+            boolean flag = random.nextInt(4) == 0;
+            payments.add(switch (random.nextInt(3)) {
+                case 0 -> new Payment.CreditCard("cc", amount, "COMPLETED", "1234", "VISA", flag);
+                case 1 -> new Payment.PayPal("pp", amount, "COMPLETED", "a@b.com", flag);
+                default -> new Payment.BankTransfer("bt", amount, "COMPLETED", "Chase", "REF");
+            });
+        }
+    }
+
+    @Benchmark
+    public BitSet perPayment() {
+        BitSet flagged = new BitSet(payments.size());
+        for (int i = 0; i < payments.size(); i++) {
+            if (paymentService.needsReview(payments.get(i))) {
+                flagged.set(i);
+            }
+        }
+        return flagged;
+    }
+
+    @Benchmark
+    public BitSet screener() {
+        return paymentService.screenForReview(payments);
+    }
+
+    @Benchmark
+    public BitSet screenerParallel() {
+        return parallelScreener.screen(payments);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.springapp.service;
+
+import com.example.springapp.config.ServiceExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScriptingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testFileReportsInBothThreadModes() throws IOException {
+        Path small = Files.writeString(directory.resolve("small.txt"), "abc");
+        Path large = Files.write(directory.resolve("large.bin"), new byte[4096]);
+        List<String> filenames = List.of(small.toString(), directory.resolve("missing").toString(), large.toString());
+
+        for (boolean virtual : new boolean[] {false, true}) {
+            try (ServiceExecutor executor = ServiceExecutor.create(virtual, 2)) {
+                List<String> reports = new ScriptingService(executor).generateFileReports(filenames);
+
+                assertEquals(3, reports.size());
+                assertTrue(reports.get(0).contains("Size: 3 bytes"), reports.get(0));
+                assertTrue(reports.get(1).startsWith("File not found"), reports.get(1));
+                assertTrue(reports.get(2).contains("Size: 4096 bytes"), reports.get(2));
+            }
+        }
+    }
+
+    @Test
+    public void testVirtualModeRunsEachTaskOnAVirtualThread() {
+        Callable<Boolean> isVirtual = () -> Thread.currentThread().isVirtual();
+        try (ServiceExecutor executor = ServiceExecutor.create(true, 1)) {
+            assertTrue(executor.isVirtual());
+            assertEquals(List.of(true, true), executor.invokeAll(List.of(isVirtual, isVirtual)));
+        }
+        try (ServiceExecutor executor = ServiceExecutor.create(false, 1)) {
+            assertEquals(List.of(false), executor.invokeAll(List.of(isVirtual)));
+        }
+    }
+}
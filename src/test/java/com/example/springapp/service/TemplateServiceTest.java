@@ -0,0 +1,47 @@
+package com.example.springapp.service;
+
+import com.example.java21features.stringtemplates.templateprocessors.SqlTemplateProcessor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateServiceTest {
+
+    private final TemplateService templateService = new TemplateService();
+
+    @Test
+    public void testWelcomeEmail() {
+        String email = templateService.generateUserWelcomeEmail("j$mith", "Jane \\ Smith");
+        assertTrue(email.startsWith("Dear Jane \\ Smith,\n"));
+        assertTrue(email.contains("Your username is: j$mith\n"));
+        assertTrue(email.endsWith("The Team\n"));
+    }
+
+    @Test
+    public void testApiResponseIsValidJson() throws Exception {
+        String response = templateService.generateApiResponse("ok", "Saved \"draft\"", Map.of("id", 1));
+        JsonNode node = new ObjectMapper().readTree(response);
+        assertEquals("ok", node.get("status").asText());
+        assertEquals("Saved \"draft\"", node.get("message").asText());
+        assertEquals("{id=1}", node.get("data").asText());
+        assertTrue(node.get("timestamp").isNumber());
+    }
+
+    @Test
+    public void testUserSearchQueryShapes() {
+        SqlTemplateProcessor.SqlTemplate all = templateService.createUserSearchQuery(null, null, null, null);
+        assertEquals("SELECT * FROM users WHERE 1=1", all.getQuery());
+        assertEquals(List.of(), all.getParameters());
+
+        SqlTemplateProcessor.SqlTemplate some = templateService.createUserSearchQuery("ann", null, 30, true);
+        assertEquals("SELECT * FROM users WHERE 1=1 AND username = ? AND age >= ? AND active = ?", some.getQuery());
+        assertEquals(List.of("ann", 30, true), some.getParameters());
+        // The same filters reuse the same statement text
+        assertSame(some.getQuery(), templateService.createUserSearchQuery("bob", null, 18, false).getQuery());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.service.OrderService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentOrderStoreTest {
+
+    private static final int WRITERS = 8;
+    private static final int ORDERS_PER_WRITER = 25_000;
+    private static final int READERS = 4;
+
+    @Test
+    public void testPutAndGet() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        assertTrue(store.isEmpty());
+        assertNull(store.first());
+        assertNull(store.last());
+
+        store.put(order(1L));
+        store.put(order(2L));
+
+        assertEquals(2, store.size());
+        assertEquals(1L, store.first().getId());
+        assertEquals(2L, store.last().getId());
+        assertEquals(2L, store.get(2L).getId());
+        assertNull(store.get(3L));
+        assertNull(store.get(0L));
+    }
+
+    @Test
+    public void testRejectsDuplicateAndMissingIds() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        store.put(order(1L));
+
+        assertThrows(IllegalStateException.class, () -> store.put(order(1L)));
+        assertThrows(IllegalArgumentException.class, () -> store.put(order(null)));
+        assertThrows(IllegalArgumentException.class, () -> store.put(order(0L)));
+    }
+
+    @Test
+    public void testOutOfOrderPutsArePublishedAsPrefix() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        store.put(order(2L));
+        store.put(order(3L));
+
+        // Order 1 is still missing, so nothing is visible in the sequence yet
+        assertEquals(0, store.size());
+        assertEquals(2L, store.get(2L).getId());
+
+        store.put(order(1L));
+        assertEquals(3, store.size());
+        assertEquals(List.of(1L, 2L, 3L), store.values().stream().map(Order::getId).toList());
+    }
+
+    @Test
+    public void testAbandonedIdDoesNotHoldBackLaterOrders() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        store.put(order(1L));
+        store.put(order(3L));
+        assertEquals(1, store.size());
+
+        store.abandon(2L);
+        // Abandoning a stored id changes nothing
+        store.abandon(3L);
+
+        assertEquals(3, store.size());
+        assertNull(store.get(2L));
+        assertNull(store.at(1));
+        assertEquals(3L, store.get(3L).getId());
+        assertEquals(List.of(1L, 3L), store.values().stream().map(Order::getId).toList());
+        assertEquals(List.of(3L), store.rangeAfter(1L, 1).stream().map(Order::getId).toList());
+        assertEquals(3L, store.last().getId());
+        assertEquals(1, store.positionOf(2L));
+        assertEquals(-1, store.positionOf(4L));
+        assertThrows(IllegalStateException.class, () -> store.put(order(2L)));
+    }
+
+    @Test
+    public void testConcurrentCreatesKeepOrderingAndVisibility() throws Exception {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+        int seeded = service.getAllOrders().size();
+        int expected = seeded + WRITERS * ORDERS_PER_WRITER;
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+        CountDownLatch writersDone = new CountDownLatch(WRITERS);
+        for (int w = 0; w < WRITERS; w++) {
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_WRITER; i++) {
+                        Order created = service.createOrder(
+                            new Order(null, "Customer", 10.0, LocalDateTime.now(), "PENDING"));
+                        // A writer must always be able to read back its own order
+                        if (service.getOrderById(created.getId()) != created) {
+                            failures.add("Order " + created.getId() + " not readable by its writer");
+                        }
+                        createdIds.add(created.getId());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    writersDone.countDown();
+                }
+            });
+        }
+
+        for (int r = 0; r < READERS; r++) {
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    int lastSize = 0;
+                    while (writing.get()) {
+                        List<Order> snapshot = service.getAllOrders();
+                        if (snapshot.size() < lastSize) {
+                            failures.add("Visible size went backwards: " + lastSize + " -> " + snapshot.size());
+                        }
+                        // Every snapshot must be the gap-free prefix 1..n in id order
+                        for (int i = 0; i < snapshot.size(); i++) {
+                            Order order = snapshot.get(i);
+                            if (order == null || order.getId() != i + 1) {
+                                failures.add("Snapshot out of order at index " + i);
+                                break;
+                            }
+                        }
+                        lastSize = snapshot.size();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(writersDone.await(60, TimeUnit.SECONDS), "Writers did not finish in time");
+        writing.set(false);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS), "Readers did not finish in time");
+
+        assertTrue(failures.isEmpty(), () -> "Concurrency violations: " + failures.stream().limit(5).toList());
+        assertEquals(WRITERS * ORDERS_PER_WRITER, createdIds.size());
+        assertEquals(WRITERS * ORDERS_PER_WRITER, createdIds.stream().distinct().count());
+
+        List<Order> all = service.getAllOrders();
+        assertEquals(expected, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i + 1, all.get(i).getId());
+        }
+    }
+
+    private static Order order(Long id) {
+        return new Order(id, "Customer " + id, 10.0, LocalDateTime.now(), "PENDING");
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurableOrderStoreTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRestartRecoversOrdersAndContinuesIds() throws IOException {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 5, 123_456_789);
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            OrderService service = new OrderService(store);
+            service.createOrder(new Order(null, "Zoë", 12.5, createdAt, "PENDING"));
+            service.createOrder(new Order(null, null, null, null, null));
+        }
+
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            OrderService service = new OrderService(store);
+
+            // 4 sample orders from the first start plus the 2 created; no re-seeding
+            assertEquals(6, service.getAllOrders().size());
+            Order recovered = service.getOrderById(5L);
+            assertEquals("Zoë", recovered.getCustomerName());
+            assertEquals(12.5, recovered.getAmount());
+            assertEquals(createdAt, recovered.getCreatedAt());
+            assertEquals("PENDING", recovered.getStatus());
+            Order empty = service.getOrderById(6L);
+            assertNull(empty.getCustomerName());
+            assertNull(empty.getAmount());
+            assertNull(empty.getCreatedAt());
+
+            assertEquals(7L, service.createOrder(order()).getId());
+        }
+    }
+
+    @Test
+    public void testRecoversFromTornRecordAtTail() throws IOException {
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            for (long id = 1; id <= 3; id++) {
+                store.put(order(id));
+            }
+        }
+        // Crash mid-write: a length header pointing at a half-written payload
+        Path segment = OrderWriteAheadLog.segmentPath(directory, 0);
+        int end = endOfLog(segment);
+        writeAt(segment, end, ByteBuffer.allocate(20).putInt(200).putInt(0xCAFE).putLong(4L).flip());
+
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(3, store.size());
+            store.put(order(4L));
+        }
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(1L, 2L, 3L, 4L), ids(store));
+        }
+    }
+
+    @Test
+    public void testIgnoresRecordWhoseLengthWasNeverWritten() throws IOException {
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            store.put(order(1L));
+        }
+        // Crash after the body was copied but before the length that publishes it
+        Path segment = OrderWriteAheadLog.segmentPath(directory, 0);
+        writeAt(segment, endOfLog(segment) + 4, ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 1, 0, 0, 0, 0, 0, 0, 0, 2}));
+
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(1L), ids(store));
+            store.put(order(2L));
+        }
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(1L, 2L), ids(store));
+        }
+    }
+
+    @Test
+    public void testRollsSegmentsAndReplaysAcrossThem() throws IOException {
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            OrderService service = new OrderService(store);
+            for (int i = 0; i < 200; i++) {
+                service.createOrder(order());
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1, "Expected the log to span several segments");
+        }
+
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            assertEquals(204, store.size());
+            assertEquals(204L, store.last().getId());
+        }
+    }
+
+    @Test
+    public void testRecoversOrdersLoggedAfterAMissingId() throws IOException {
+        // Order 3 never reached the log, e.g. because the disk filled up, and the
+        // writers of 5 and 4 reached it out of id order
+        try (OrderWriteAheadLog log = OrderWriteAheadLog.open(directory, SEGMENT_SIZE, order -> {}, order -> {})) {
+            log.append(order(1L));
+            log.append(order(2L));
+            log.append(new Order(5L, "Fifth", 1.0, LocalDateTime.now(), "PENDING"));
+            log.append(new Order(4L, "Fourth", 1.0, LocalDateTime.now(), "PENDING"));
+            log.appendUpdate(update(5L, "PROCESSING", 1));
+        }
+
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(1L, 2L, 4L, 5L), ids(store));
+            assertNull(store.get(3L));
+            assertEquals("PROCESSING", store.get(5L).getStatus());
+            // The missing id is not handed out again
+            assertEquals(6L, new OrderService(store).createOrder(order()).getId());
+        }
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(1L, 2L, 4L, 5L, 6L), ids(store));
+            assertEquals("Fourth", store.get(4L).getCustomerName());
+        }
+    }
+
+    @Test
+    public void testOversizedOrderIsRejectedAlone() throws IOException {
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            Order oversized = new Order(1L, "x".repeat(2_000), 10.0, LocalDateTime.now(), "PENDING");
+            assertThrows(IllegalArgumentException.class, () -> store.put(oversized));
+            // As OrderService does when a create fails
+            store.abandon(1L);
+            store.put(order(2L));
+        }
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            assertEquals(List.of(2L), ids(store));
+        }
+    }
+
+    @Test
+    public void testFailedAppendPublishesNothing() throws IOException {
+        DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE);
+        store.put(order(1L));
+        store.close();
+
+        assertThrows(UncheckedIOException.class, () -> store.put(order(2L)));
+        assertThrows(UncheckedIOException.class, () -> store.putAll(List.of(order(2L), order(3L))));
+        assertNull(store.get(2L));
+        assertEquals(List.of(1L), ids(store));
+    }
+
+    @Test
+    public void testSnapshotPlusTailRecovery() throws IOException {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 8, 0, 0, 42);
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            OrderService service = new OrderService(store);
+            for (int i = 0; i < 100; i++) {
+                service.createOrder(new Order(null, "Customer " + (i % 7), i * 1.25, createdAt, i % 2 == 0 ? "PENDING" : "COMPLETED"));
+            }
+            service.createOrder(new Order(null, null, null, null, null));
+
+            assertEquals(105L, store.snapshot());
+            // Tail written after the snapshot must come back from the log
+            service.createOrder(new Order(null, "Tail", 9.99, createdAt, "PROCESSING"));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // The snapshot, plus the single segment holding the tail
+            assertEquals(2, files.count());
+        }
+
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            assertEquals(106, store.size());
+            Order fromSnapshot = store.get(15L);
+            assertEquals("Customer 3", fromSnapshot.getCustomerName());
+            assertEquals(10 * 1.25, fromSnapshot.getAmount());
+            assertEquals(createdAt, fromSnapshot.getCreatedAt());
+            assertEquals("PENDING", fromSnapshot.getStatus());
+            Order empty = store.get(105L);
+            assertNull(empty.getCustomerName());
+            assertNull(empty.getAmount());
+            assertNull(empty.getCreatedAt());
+            assertNull(empty.getStatus());
+            assertEquals("Tail", store.get(106L).getCustomerName());
+
+            // A second snapshot replaces the first
+            assertEquals(106L, store.snapshot());
+        }
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            assertEquals(106, store.size());
+            assertTrue(Files.exists(DurableOrderStore.snapshotPath(directory, 106L)));
+            assertFalse(Files.exists(DurableOrderStore.snapshotPath(directory, 105L)));
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsSegmentsWithUnappliedOrders() throws IOException {
+        // Order 3 is logged but the snapshot only covers 1..2, as if its writer had
+        // not reached the in-memory store yet
+        try (OrderWriteAheadLog log = OrderWriteAheadLog.open(directory, 1024, order -> {}, order -> {})) {
+            log.append(order(1L));
+            log.roll();
+            log.append(order(2L));
+            log.append(order(3L));
+            log.roll();
+
+            assertEquals(1, log.compact(2L));
+            assertFalse(Files.exists(OrderWriteAheadLog.segmentPath(directory, 0)));
+            assertTrue(Files.exists(OrderWriteAheadLog.segmentPath(directory, 1)));
+        }
+    }
+
+    @Test
+    public void testStatusUpdatesSurviveRestartAndSnapshot() throws IOException {
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            OrderService service = new OrderService(store);
+            service.updateStatus(2L, "PROCESSING", null);
+            assertEquals(4L, store.snapshot());
+            // Logged after the snapshot, so it comes back from the tail
+            service.updateStatus(2L, "COMPLETED", null);
+            service.updateStatus(4L, "CANCELLED", null);
+        }
+        try (DurableOrderStore store = DurableOrderStore.open(directory, 1024)) {
+            assertEquals("COMPLETED", store.get(2L).getStatus());
+            assertEquals(2, store.get(2L).getVersion());
+            assertEquals("CANCELLED", store.get(4L).getStatus());
+            assertEquals(1, store.get(4L).getVersion());
+            assertEquals(0, store.get(1L).getVersion());
+        }
+    }
+
+    @Test
+    public void testFailedUpdateLeavesPreviousVersion() throws IOException {
+        DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE);
+        OrderService service = new OrderService(store);
+        Order before = store.get(2L);
+        List<Order> notified = new ArrayList<>();
+        service.addStatusListener((previous, updated) -> notified.add(updated));
+        store.close();
+
+        assertThrows(UncheckedIOException.class, () -> service.updateStatus(2L, "PROCESSING", null));
+        assertSame(before, store.get(2L));
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    public void testReplaySkipsUpdatesTheSnapshotAlreadyHas() throws IOException {
+        // A snapshot covering order 1 at version 2, and a segment compaction kept
+        // because it also holds order 2, which the snapshot does not cover
+        ConcurrentOrderStore snapshotted = new ConcurrentOrderStore();
+        snapshotted.put(update(1L, "COMPLETED", 2));
+        OrderSnapshot.write(DurableOrderStore.snapshotPath(directory, 1L), snapshotted, 1);
+        try (OrderWriteAheadLog log = OrderWriteAheadLog.open(directory, SEGMENT_SIZE, order -> {}, order -> {})) {
+            log.append(order(1L));
+            log.appendUpdate(update(1L, "PROCESSING", 1));
+            log.append(order(2L));
+            log.sync(3);
+        }
+
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(1L, 2L), ids(store));
+            assertEquals("COMPLETED", store.get(1L).getStatus());
+            assertEquals(2, store.get(1L).getVersion());
+        }
+    }
+
+    private static Order update(long id, String status, long version) {
+        Order order = new Order(id, "Customer", 10.0, LocalDateTime.now(), status);
+        order.setVersion(version);
+        return order;
+    }
+
+    private static Order order() {
+        return order(null);
+    }
+
+    private static Order order(Long id) {
+        return new Order(id, "Customer", 10.0, LocalDateTime.now(), "PENDING");
+    }
+
+    private static List<Long> ids(OrderStore store) {
+        return store.values().stream().map(Order::getId).toList();
+    }
+
+    // Offset just past the last complete frame of a segment
+    private static int endOfLog(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int position = 0;
+        while (buffer.getInt(position) > 0) {
+            position += 8 + buffer.getInt(position);
+        }
+        return position;
+    }
+
+    private static void writeAt(Path file, int position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Secondary index lookups as the store grows to 10M orders
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx4g"})
+public class OrderIndexBenchmark {
+    private static final String[] STATUSES = {"PENDING", "PROCESSING", "COMPLETED", "CANCELLED"};
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1000000", "10000000"})
+    private int orderCount;
+
+    private ConcurrentOrderStore store;
+    private OrderIndexes indexes;
+    private long middleId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new ConcurrentOrderStore();
+        String[] customers = new String[100_000];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = "Customer " + i;
+        }
+        Double amount = 10.0;
+        LocalDateTime createdAt = START;
+        for (long id = 1; id <= orderCount; id++) {
+            // Roughly 20 orders per second of history
+            if (id % 20 == 0) {
+                createdAt = createdAt.plusSeconds(1);
+            }
+            store.put(new Order(id, customers[(int) (id % customers.length)], amount, createdAt,
+                STATUSES[(int) (id % STATUSES.length)]));
+        }
+        indexes = new OrderIndexes();
+        indexes.catchUp(store);
+        middleId = orderCount / 2;
+    }
+
+    @Benchmark
+    public List<Order> byStatusFromMiddle() {
+        return indexes.findByStatus(store, "COMPLETED", middleId, 100);
+    }
+
+    @Benchmark
+    public List<Order> byCustomer() {
+        return indexes.findByCustomer(store, "Customer 4242", 0, 100);
+    }
+
+    @Benchmark
+    public List<Order> byCreatedAtFiveSeconds() {
+        LocalDateTime from = START.plusSeconds(orderCount / 40);
+        return indexes.findByCreatedAt(store, from, from.plusSeconds(5), 100);
+    }
+}
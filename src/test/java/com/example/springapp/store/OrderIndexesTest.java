@@ -0,0 +1,168 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.service.OrderService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderIndexesTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Test
+    public void testStatusAndCustomerLookups() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        put(store, 1, "Alice", START, "PENDING");
+        put(store, 2, "Bob", START, "COMPLETED");
+        put(store, 3, "Alice", START, "COMPLETED");
+        put(store, 4, "Alice", START, "PENDING");
+        put(store, 5, null, null, null);
+
+        OrderIndexes indexes = new OrderIndexes();
+        indexes.catchUp(store);
+
+        assertEquals(List.of(1L, 4L), ids(indexes.findByStatus(store, "PENDING", 0, 10)));
+        assertEquals(List.of(1L, 3L, 4L), ids(indexes.findByCustomer(store, "Alice", 0, 10)));
+        assertEquals(List.of(3L), ids(indexes.findByCustomer(store, "Alice", 1, 1)));
+        assertEquals(List.of(4L), ids(indexes.findByCustomer(store, "Alice", 3, 10)));
+        assertTrue(indexes.findByStatus(store, "SHIPPED", 0, 10).isEmpty());
+
+        // Later orders are picked up by the next catch-up
+        put(store, 6, "Bob", START, "PENDING");
+        indexes.catchUp(store);
+        assertEquals(List.of(1L, 4L, 6L), ids(indexes.findByStatus(store, "PENDING", 0, 10)));
+    }
+
+    @Test
+    public void testCreatedAtRangeIsOrderedByTime() {
+        ConcurrentOrderStore store = new ConcurrentOrderStore();
+        put(store, 1, "A", START.plusSeconds(30), "PENDING");
+        put(store, 2, "B", START.plusSeconds(10), "PENDING");
+        put(store, 3, "C", START.minusSeconds(1), "PENDING");
+        put(store, 4, "D", START.plusMinutes(5), "PENDING");
+        put(store, 5, "E", START.plusMinutes(10), "PENDING");
+        put(store, 6, "F", START.plusSeconds(10), "PENDING");
+
+        OrderIndexes indexes = new OrderIndexes();
+        indexes.catchUp(store);
+
+        assertEquals(List.of(2L, 6L, 1L, 4L), ids(indexes.findByCreatedAt(store, START, START.plusMinutes(10), 10)));
+        assertEquals(List.of(2L, 6L), ids(indexes.findByCreatedAt(store, START, START.plusMinutes(10), 2)));
+    }
+
+    @Test
+    public void testLookupsStayConsistentUnderConcurrentCreates() throws Exception {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+        String[] statuses = {"PENDING", "PROCESSING", "COMPLETED"};
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+        CountDownLatch writersDone = new CountDownLatch(3);
+        for (int w = 0; w < 3; w++) {
+            String status = statuses[w];
+            pool.submit(() -> {
+                try {
+                    for (int i = 0; i < 20_000; i++) {
+                        service.createOrder(new Order(null, "Customer " + (i % 10), 1.0, START, status));
+                    }
+                } finally {
+                    writersDone.countDown();
+                }
+            });
+        }
+        pool.submit(() -> {
+            while (writing.get()) {
+                for (String status : statuses) {
+                    List<Order> page = orders(service.getOrdersByStatus(status, null, 500));
+                    long previous = 0;
+                    for (Order order : page) {
+                        if (!status.equals(order.getStatus()) || order.getId() <= previous) {
+                            failures.add("Bad " + status + " result at id " + order.getId());
+                        }
+                        previous = order.getId();
+                    }
+                }
+            }
+        });
+
+        pool.shutdown();
+        try {
+            assertTrue(writersDone.await(60, TimeUnit.SECONDS), "Writers did not finish in time");
+        } finally {
+            writing.set(false);
+        }
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS), "Reader did not finish in time");
+
+        assertTrue(failures.isEmpty(), () -> "Index violations: " + failures.stream().limit(5).toList());
+        int total = 0;
+        for (String status : statuses) {
+            String cursor = null;
+            List<Order> page;
+            do {
+                var response = service.getOrdersByStatus(status, cursor, 7_000);
+                page = orders(response);
+                total += page.size();
+                cursor = (String) response.get("nextCursor");
+            } while (!page.isEmpty());
+        }
+        // 60,000 created plus the 4 sample orders
+        assertEquals(60_004, total);
+    }
+
+    @Test
+    public void testStatusLookupsFollowConcurrentUpdates() throws Exception {
+        OrderService service = new OrderService(new ConcurrentOrderStore());
+        for (int i = 0; i < 5_000; i++) {
+            service.createOrder(new Order(null, "Customer", 1.0, START, "PENDING"));
+        }
+        service.getOrdersByStatus("PENDING", null, 1);
+        String[] path = {"PROCESSING", "COMPLETED"};
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int w = 0; w < 4; w++) {
+            pool.submit(() -> {
+                // Every worker walks every order, so each move is contended
+                for (long id = 1; id <= 5_004; id++) {
+                    for (String status : path) {
+                        service.updateStatus(id, status, null);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        for (String status : new String[] {"PENDING", "PROCESSING", "COMPLETED"}) {
+            List<Order> found = orders(service.getOrdersByStatus(status, null, 10_000));
+            List<Long> expected = service.getAllOrders().stream()
+                .filter(order -> status.equals(order.getStatus()))
+                .map(Order::getId)
+                .toList();
+            assertEquals(expected, ids(found), status);
+        }
+        assertEquals(5_004, orders(service.getOrdersByStatus("COMPLETED", null, 10_000)).size());
+    }
+
+    private static void put(ConcurrentOrderStore store, long id, String customer, LocalDateTime createdAt, String status) {
+        store.put(new Order(id, customer, 1.0, createdAt, status));
+    }
+
+    private static List<Long> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Order> orders(java.util.Map<String, Object> response) {
+        return (List<Order>) response.get("data");
+    }
+}
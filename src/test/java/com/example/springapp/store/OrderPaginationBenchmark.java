@@ -0,0 +1,51 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+import com.example.springapp.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Page latency as the store grows; should stay flat from 1K to 10M orders
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx3g"})
+public class OrderPaginationBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int orderCount;
+
+    private OrderService service;
+    private int lastPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new OrderService(new ConcurrentOrderStore());
+        LocalDateTime createdAt = LocalDateTime.now();
+        Double amount = 10.0;
+        for (int i = service.getAllOrders().size(); i < orderCount; i++) {
+            service.createOrder(new Order(null, "Customer", amount, createdAt, "PENDING"));
+        }
+        lastPage = (orderCount + 9) / 10;
+    }
+
+    @Benchmark
+    public Map<String, Object> firstPage() {
+        return service.getOrdersWithPagination(1, 10);
+    }
+
+    @Benchmark
+    public Map<String, Object> middlePage() {
+        return service.getOrdersWithPagination(lastPage / 2, 10);
+    }
+
+    @Benchmark
+    public Map<String, Object> lastPage() {
+        return service.getOrdersWithPagination(lastPage, 10);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.springapp.store;
+
+import com.example.springapp.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Startup time of DurableOrderStore: replaying the full log versus loading a
+// snapshot and replaying a 1% tail
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx3g"})
+public class OrderRecoveryBenchmark {
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    @Param({"100000", "1000000"})
+    private int orderCount;
+
+    private Path logOnly;
+    private Path withSnapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logOnly = Files.createTempDirectory("orders-log-only");
+        withSnapshot = Files.createTempDirectory("orders-snapshot");
+        populate(logOnly, orderCount, false);
+        populate(withSnapshot, orderCount, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        delete(logOnly);
+        delete(withSnapshot);
+    }
+
+    @Benchmark
+    public int replayLogOnly() throws IOException {
+        try (DurableOrderStore store = DurableOrderStore.open(logOnly, SEGMENT_SIZE)) {
+            return store.size();
+        }
+    }
+
+    @Benchmark
+    public int loadSnapshotAndTail() throws IOException {
+        try (DurableOrderStore store = DurableOrderStore.open(withSnapshot, SEGMENT_SIZE)) {
+            return store.size();
+        }
+    }
+
+    private static void populate(Path directory, int orderCount, boolean snapshot) throws IOException {
+        LocalDateTime createdAt = LocalDateTime.now();
+        int tail = orderCount / 100;
+        try (DurableOrderStore store = DurableOrderStore.open(directory, SEGMENT_SIZE)) {
+            List<Order> batch = new ArrayList<>();
+            for (long id = 1; id <= orderCount; id++) {
+                batch.add(new Order(id, "Customer " + (id % 1000), 10.0 + id % 500,
+                    createdAt.plusSeconds(id), id % 3 == 0 ? "COMPLETED" : "PENDING"));
+                // Batches keep set-up to one sync per 10K orders
+                boolean snapshotHere = snapshot && id == orderCount - tail;
+                if (batch.size() == 10_000 || id == orderCount || snapshotHere) {
+                    store.putAll(batch);
+                    batch.clear();
+                }
+                if (snapshotHere) {
+                    store.snapshot();
+                }
+            }
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}